@@ -0,0 +1,219 @@
+package aloha.codegen;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// BfsGenerator generates GeneratedBfs, a breadth-first search over the tiles within a radius of a robot. The search is
+//  fully unrolled into local variables, one distance and one first step per tile, so it uses no arrays and no loops.
+//  Array accesses and loop bookkeeping cost bytecode on every tile, while locals cost a single instruction.
+//
+// The tiles are visited in rings of increasing Chebyshev distance from the robot, so every tile only looks at its
+//  neighbours in the rings before it, and at the neighbours in its own ring visited before it. Paths that have to leave
+//  the area of a ring and come back into it are not found, which is what a single pass over the rings gives up to stay
+//  within budget.
+//
+// Usage: BfsGenerator <radius squared> <output directory>
+public class BfsGenerator {
+  // UNREACHABLE is the distance of a tile we don't know a path to. It's larger than any distance within the radius.
+  private static final int UNREACHABLE = 10000;
+
+  private static final String[][] DIRECTIONS = {
+    {"NORTH", "0", "1"}, {"NORTHEAST", "1", "1"}, {"EAST", "1", "0"}, {"SOUTHEAST", "1", "-1"},
+    {"SOUTH", "0", "-1"}, {"SOUTHWEST", "-1", "-1"}, {"WEST", "-1", "0"}, {"NORTHWEST", "-1", "1"},
+  };
+
+  private static class Tile {
+    final int dx;
+    final int dy;
+    final int ring;
+    final String name;
+
+    Tile(int dx, int dy) {
+      this.dx = dx;
+      this.dy = dy;
+      this.ring = Math.max(Math.abs(dx), Math.abs(dy));
+      this.name = offset(dx) + "_" + offset(dy);
+    }
+
+    double angle() {
+      return Math.atan2(dy, dx);
+    }
+  }
+
+  private final int radiusSquared;
+  private final int radius;
+  private final List<Tile> tiles = new ArrayList<>();
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException("usage: BfsGenerator <radius squared> <output directory>");
+    }
+
+    BfsGenerator generator = new BfsGenerator(Integer.parseInt(args[0]));
+    Path output = Paths.get(args[1]).resolve("GeneratedBfs.java");
+    Files.write(output, generator.generate().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private BfsGenerator(int radiusSquared) {
+    this.radiusSquared = radiusSquared;
+    this.radius = (int) Math.floor(Math.sqrt(radiusSquared));
+
+    for (int dx = -radius; dx <= radius; dx++) {
+      for (int dy = -radius; dy <= radius; dy++) {
+        if ((dx != 0 || dy != 0) && dx*dx + dy*dy <= radiusSquared) {
+          tiles.add(new Tile(dx, dy));
+        }
+      }
+    }
+
+    // Visit the tiles ring by ring, going around each ring, so that a tile's neighbours in its own ring are mostly
+    //  visited right before it
+    tiles.sort(Comparator.<Tile>comparingInt(t -> t.ring).thenComparingDouble(Tile::angle));
+  }
+
+  private String generate() {
+    StringBuilder body = new StringBuilder();
+    relax(body);
+    pick(body);
+
+    StringBuilder out = new StringBuilder();
+    out.append("// Code generated by aloha.codegen.BfsGenerator. DO NOT EDIT.\n");
+    out.append("//  Run `./gradlew generateBfs` after changing the generator.\n\n");
+    out.append("package aloha.pathing;\n\n");
+    out.append("import battlecode.common.*;\n\n");
+    out.append("// GeneratedBfs is a breadth-first search over the tiles within RADIUS_SQUARED of a robot, unrolled into local\n");
+    out.append("//  variables (see BfsPathFinder).\n");
+    out.append("public class GeneratedBfs {\n");
+    out.append("    // RADIUS_SQUARED is the radius of the searched area around the robot.\n");
+    out.append("    public static final int RADIUS_SQUARED = ").append(radiusSquared).append(";\n");
+    out.append("    // NUM_TILES is the number of tiles in the searched area, not counting the robot's own tile.\n");
+    out.append("    public static final int NUM_TILES = ").append(tiles.size()).append(";\n\n");
+    out.append("    private static final int UNREACHABLE = ").append(UNREACHABLE).append(";\n\n");
+    out.append("    // waypoint is the tile the last search headed to, if dst was outside the searched area, or null otherwise.\n");
+    out.append("    public static MapLocation waypoint = null;\n\n");
+    out.append("    // firstStep returns the first step of the shortest path from src, which must be the robot's location, to dst,\n");
+    out.append("    //  or null if dst is in the searched area but it found no path to it. If dst is outside the searched area, it\n");
+    out.append("    //  returns the first step towards the reachable tile on the edge of the searched area closest to dst, and sets\n");
+    out.append("    //  waypoint to that tile. Returns null if no tile is reachable.\n");
+    out.append("    public static Direction firstStep(MapLocation src, MapLocation dst, RobotController rc) throws GameActionException {\n");
+    out.append("        int x = src.x;\n");
+    out.append("        int y = src.y;\n");
+    out.append(body);
+    out.append("    }\n");
+    out.append("}\n");
+    return out.toString();
+  }
+
+  // relax declares the location, distance and first step of every tile, and sets the distance and first step of the
+  //  tiles that can be reached from the tiles visited before them.
+  private void relax(StringBuilder out) {
+    int ring = 0;
+    for (int i = 0; i < tiles.size(); i++) {
+      Tile tile = tiles.get(i);
+      if (tile.ring != ring) {
+        ring = tile.ring;
+        out.append("\n        // Ring ").append(ring).append("\n");
+      }
+
+      String n = tile.name;
+      out.append("        MapLocation l_").append(n).append(" = src.translate(").append(tile.dx).append(", ").append(tile.dy).append(");\n");
+      out.append("        int d_").append(n).append(" = UNREACHABLE;\n");
+      out.append("        Direction f_").append(n).append(" = null;\n");
+
+      // The robot moves to a tile of the first ring right away, so it must not be occupied
+      if (tile.ring == 1) {
+        out.append("        if (rc.canSenseLocation(l_").append(n).append(") && rc.sensePassability(l_").append(n).append(") && !rc.isLocationOccupied(l_").append(n).append(")) {\n");
+        out.append("            d_").append(n).append(" = 1;\n");
+        out.append("            f_").append(n).append(" = Direction.").append(directionOf(tile.dx, tile.dy)).append(";\n");
+        out.append("        }\n");
+        continue;
+      }
+
+      out.append("        if (rc.canSenseLocation(l_").append(n).append(") && rc.sensePassability(l_").append(n).append(")) {\n");
+      for (int j = 0; j < i; j++) {
+        Tile neighbour = tiles.get(j);
+        if (Math.abs(neighbour.dx - tile.dx) > 1 || Math.abs(neighbour.dy - tile.dy) > 1) {
+          continue;
+        }
+
+        String m = neighbour.name;
+        out.append("            if (d_").append(m).append(" < d_").append(n).append(") { d_").append(n).append(" = d_").append(m)
+          .append("; f_").append(n).append(" = f_").append(m).append("; }\n");
+      }
+      out.append("            d_").append(n).append(" += 1;\n");
+      out.append("        }\n");
+    }
+  }
+
+  // pick returns the first step towards dst if it's in the searched area, or null if we found no path to it. Otherwise,
+  //  it returns the first step towards the reachable tile on the edge of the searched area closest to dst, and records
+  //  that tile in waypoint.
+  private void pick(StringBuilder out) {
+    int width = 2*radius + 1;
+    out.append("\n        // Pick the first step towards dst, if we found a path to it\n");
+    out.append("        int ox = dst.x - x;\n");
+    out.append("        int oy = dst.y - y;\n");
+    out.append("        if (ox >= ").append(-radius).append(" && ox <= ").append(radius).append(" && oy >= ").append(-radius).append(" && oy <= ").append(radius)
+      .append(" && ox*ox + oy*oy <= RADIUS_SQUARED) {\n");
+    out.append("            int d = UNREACHABLE;\n");
+    out.append("            Direction f = null;\n");
+    out.append("            switch ((ox + ").append(radius).append(") * ").append(width).append(" + (oy + ").append(radius).append(")) {\n");
+    for (Tile tile : tiles) {
+      int key = (tile.dx + radius) * width + (tile.dy + radius);
+      out.append("                case ").append(key).append(": d = d_").append(tile.name).append("; f = f_").append(tile.name).append("; break;\n");
+    }
+    out.append("                default: break;\n");
+    out.append("            }\n");
+    out.append("            // A tile in the searched area that we found no path to, e.g. an occupied tile next to us, is better\n");
+    out.append("            //  waited for than walked away from\n");
+    out.append("            waypoint = null;\n");
+    out.append("            return d < UNREACHABLE ? f : null;\n");
+    out.append("        }\n\n");
+    out.append("        // Otherwise head to the reachable tile on the edge of the searched area closest to dst\n");
+    out.append("        Direction best = null;\n");
+    out.append("        MapLocation bestLocation = null;\n");
+    out.append("        int bestScore = Integer.MAX_VALUE;\n");
+    for (Tile tile : tiles) {
+      if (isOnEdge(tile)) {
+        String n = tile.name;
+        out.append("        if (d_").append(n).append(" < UNREACHABLE) { int score = dst.distanceSquaredTo(l_").append(n)
+          .append("); if (score < bestScore) { bestScore = score; best = f_").append(n)
+          .append("; bestLocation = l_").append(n).append("; } }\n");
+      }
+    }
+    out.append("        waypoint = bestLocation;\n");
+    out.append("        return best;\n");
+  }
+
+  // isOnEdge returns true if the given tile has a neighbour outside the searched area.
+  private boolean isOnEdge(Tile tile) {
+    for (String[] direction : DIRECTIONS) {
+      int dx = tile.dx + Integer.parseInt(direction[1]);
+      int dy = tile.dy + Integer.parseInt(direction[2]);
+      if (dx*dx + dy*dy > radiusSquared) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String directionOf(int dx, int dy) {
+    for (String[] direction : DIRECTIONS) {
+      if (Integer.parseInt(direction[1]) == dx && Integer.parseInt(direction[2]) == dy) {
+        return direction[0];
+      }
+    }
+    throw new RuntimeException("should not be here");
+  }
+
+  // offset names an offset from the robot, e.g. "p2" for +2 and "m1" for -1, so it can be part of a variable name.
+  private static String offset(int offset) {
+    return (offset < 0 ? "m" : "p") + Math.abs(offset);
+  }
+}
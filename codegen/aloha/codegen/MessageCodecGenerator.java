@@ -0,0 +1,425 @@
+package aloha.codegen;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// MessageCodecGenerator generates GeneratedEncoding and GeneratedDecoding from a message schema (see messages.schema).
+//  Every encoder and decoder is a single expression with literal shifts and masks, so they cost no more bytecode
+//  than hand-written ones, and can't drift out of sync with the schema.
+//
+// Usage: MessageCodecGenerator <schema file> <output directory>
+public class MessageCodecGenerator {
+  private static final int MAX_LAYOUT_LENGTH = 16;
+
+  private static class EnumType {
+    String className;
+    String simpleName;
+    String prefix;
+    String decoderName;
+    int length;
+    String description;
+    final Map<String, Integer> values = new LinkedHashMap<>();
+  }
+
+  private static class FieldType {
+    String prefix;
+    // layout is the encoder suffix of the layout this field type is laid out as, or null if it has a length of its own.
+    String layout;
+    int length;
+    String description;
+    int lineNumber;
+  }
+
+  private static class Field {
+    String name;
+    String type;
+    Integer constant;
+    int length;
+    int shift;
+    int lineNumber;
+  }
+
+  private static class Layout {
+    String encoderSuffix;
+    String decoderPrefix;
+    String description;
+    final List<Field> fields = new ArrayList<>();
+  }
+
+  private final Map<String, EnumType> enums = new LinkedHashMap<>();
+  private final Map<String, FieldType> fieldTypes = new LinkedHashMap<>();
+  private final List<Layout> layouts = new ArrayList<>();
+  private String schemaName;
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException("usage: MessageCodecGenerator <schema file> <output directory>");
+    }
+
+    Path schema = Paths.get(args[0]);
+    Path outputDirectory = Paths.get(args[1]);
+    MessageCodecGenerator generator = new MessageCodecGenerator();
+    generator.parse(schema);
+    Files.write(outputDirectory.resolve("GeneratedEncoding.java"), generator.encoding().getBytes(StandardCharsets.UTF_8));
+    Files.write(outputDirectory.resolve("GeneratedDecoding.java"), generator.decoding().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void parse(Path schema) throws IOException {
+    schemaName = schema.getFileName().toString();
+    EnumType currentEnum = null;
+    Layout currentLayout = null;
+
+    int lineNumber = 0;
+    for (String line : Files.readAllLines(schema, StandardCharsets.UTF_8)) {
+      lineNumber++;
+      String trimmed = line.trim();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+        continue;
+      }
+
+      String[] tokens = trimmed.split("\\s+");
+      boolean isMember = Character.isWhitespace(line.charAt(0));
+      if (isMember) {
+        if (currentEnum != null && tokens.length == 2) {
+          currentEnum.values.put(tokens[0], Integer.parseInt(tokens[1]));
+        } else if (currentLayout != null && (tokens.length == 2 || (tokens.length == 4 && tokens[2].equals("=")))) {
+          Field field = new Field();
+          field.name = tokens[0];
+          field.type = tokens[1];
+          field.constant = tokens.length == 4 ? Integer.valueOf(tokens[3]) : null;
+          field.lineNumber = lineNumber;
+          currentLayout.fields.add(field);
+        } else {
+          throw new IllegalArgumentException(schemaName + ":" + lineNumber + ": unexpected member: " + trimmed);
+        }
+        continue;
+      }
+
+      currentEnum = null;
+      currentLayout = null;
+      switch (tokens[0]) {
+        case "enum":
+          currentEnum = new EnumType();
+          currentEnum.className = tokens[1];
+          currentEnum.simpleName = tokens[1].substring(tokens[1].lastIndexOf('.') + 1);
+          currentEnum.prefix = tokens[2];
+          currentEnum.decoderName = tokens[3];
+          currentEnum.length = Integer.parseInt(tokens[4]);
+          currentEnum.description = rest(trimmed, 5);
+          enums.put(currentEnum.prefix, currentEnum);
+          break;
+        case "field":
+          FieldType fieldType = new FieldType();
+          fieldType.prefix = tokens[1];
+          if (tokens[2].chars().allMatch(Character::isDigit)) {
+            fieldType.length = Integer.parseInt(tokens[2]);
+          } else {
+            fieldType.layout = tokens[2];
+          }
+          fieldType.description = rest(trimmed, 3);
+          fieldType.lineNumber = lineNumber;
+          fieldTypes.put(fieldType.prefix, fieldType);
+          break;
+        case "layout":
+          currentLayout = new Layout();
+          currentLayout.encoderSuffix = tokens[1];
+          currentLayout.decoderPrefix = tokens[2];
+          currentLayout.description = rest(trimmed, 3);
+          layouts.add(currentLayout);
+          break;
+        default:
+          throw new IllegalArgumentException(schemaName + ":" + lineNumber + ": unexpected declaration: " + trimmed);
+      }
+    }
+
+    // Lay out the fields of every layout, most significant first. A field type laid out as a layout takes the
+    //  length of that layout, so the layout must come before any layout that uses the field type.
+    Map<String, Integer> layoutLengths = new LinkedHashMap<>();
+    for (Layout layout : layouts) {
+      int shift = 0;
+      for (int i = layout.fields.size() - 1; i >= 0; i--) {
+        Field field = layout.fields.get(i);
+        field.length = lengthOf(field.type, layoutLengths, field.lineNumber);
+        field.shift = shift;
+        shift += field.length;
+      }
+      if (shift > MAX_LAYOUT_LENGTH) {
+        throw new IllegalArgumentException(schemaName + ": layout " + layout.encoderSuffix + " takes " + shift + " bits");
+      }
+      layoutLengths.put(layout.encoderSuffix, shift);
+    }
+
+    // Field types laid out as a layout that no layout uses still need their length
+    for (FieldType fieldType : fieldTypes.values()) {
+      lengthOf(fieldType.prefix, layoutLengths, fieldType.lineNumber);
+    }
+
+    // Check that every enum value fits in its bits
+    for (EnumType enumType : enums.values()) {
+      for (Map.Entry<String, Integer> value : enumType.values.entrySet()) {
+        if (value.getValue() <= 0 || value.getValue() > mask(enumType.length)) {
+          throw new IllegalArgumentException(schemaName + ": " + enumType.simpleName + "." + value.getKey() + " doesn't fit in " + enumType.length + " bits");
+        }
+      }
+    }
+
+    // Check that every constant fits in its field, and that a constant of an enum field is reserved, so that it can
+    //  never be mistaken for a value of the enum
+    for (Layout layout : layouts) {
+      for (Field field : layout.fields) {
+        if (field.constant == null) {
+          continue;
+        }
+
+        if (field.constant < 0 || field.constant > mask(field.length)) {
+          throw new IllegalArgumentException(schemaName + ":" + field.lineNumber + ": " + field.constant + " doesn't fit in " + field.length + " bits");
+        }
+
+        EnumType enumType = enums.get(field.type);
+        if (enumType == null) {
+          continue;
+        }
+
+        for (Map.Entry<String, Integer> value : enumType.values.entrySet()) {
+          if (value.getValue().equals(field.constant)) {
+            throw new IllegalArgumentException(schemaName + ":" + field.lineNumber + ": " + field.constant + " is reserved, but it's the encoding of "
+              + enumType.simpleName + "." + value.getKey());
+          }
+        }
+      }
+    }
+  }
+
+  private String encoding() {
+    StringBuilder out = new StringBuilder();
+    header(out);
+    out.append("public class GeneratedEncoding {\n");
+
+    for (EnumType enumType : enums.values()) {
+      constants(out, enumType.prefix, enumType.length, enumType.description);
+    }
+    for (FieldType fieldType : fieldTypes.values()) {
+      constants(out, fieldType.prefix, fieldType.length, fieldType.description);
+    }
+
+    for (Layout layout : layouts) {
+      for (Field field : layout.fields) {
+        if (field.constant != null) {
+          String name = upperSnake(layout.encoderSuffix) + "_" + upperSnake(field.name) + "_ENCODING";
+          out.append("  // ").append(name).append(" is the ").append(words(field.name)).append(" of every ")
+            .append(words(layout.encoderSuffix)).append(".\n");
+          out.append("  public static final int ").append(name).append(" = ").append(field.constant).append(";\n\n");
+        }
+      }
+    }
+
+    int caseWidth = 0;
+    for (EnumType enumType : enums.values()) {
+      for (String value : enumType.values.keySet()) {
+        caseWidth = Math.max(caseWidth, ("    case " + value + ":").length() + 1);
+      }
+    }
+
+    for (EnumType enumType : enums.values()) {
+      String parameter = lowerCamel(enumType.simpleName);
+      out.append("  public static int of(").append(enumType.simpleName).append(" ").append(parameter).append(") {\n");
+      out.append("    switch(").append(parameter).append(") {\n");
+      for (Map.Entry<String, Integer> value : enumType.values.entrySet()) {
+        out.append(pad("    case " + value.getKey() + ":", caseWidth)).append("return ").append(value.getValue()).append(";\n");
+      }
+      out.append("    default: throw new RuntimeException(\"should not be here\");\n");
+      out.append("    }\n");
+      out.append("  }\n\n");
+    }
+
+    for (Layout layout : layouts) {
+      out.append("  // of").append(layout.encoderSuffix).append(" encodes ").append(layout.description).append(", in the format\n");
+      out.append("  //    ").append(format(layout)).append("\n");
+      out.append("  public static int of").append(layout.encoderSuffix).append("(");
+      boolean isFirst = true;
+      for (Field field : layout.fields) {
+        if (field.constant == null) {
+          out.append(isFirst ? "" : ", ").append("int ").append(lowerCamel(field.name));
+          isFirst = false;
+        }
+      }
+      out.append(") {\n");
+      out.append("    return ");
+      isFirst = true;
+      for (Field field : layout.fields) {
+        String value = field.constant != null ? String.valueOf(field.constant) : lowerCamel(field.name);
+        out.append(isFirst ? "" : " | ").append(field.shift == 0 ? value : "(" + value + " << " + field.shift + ")");
+        isFirst = false;
+      }
+      out.append(";\n");
+      out.append("  }\n\n");
+    }
+
+    trimTrailingBlankLine(out);
+    out.append("}\n");
+    return out.toString();
+  }
+
+  private String decoding() {
+    StringBuilder out = new StringBuilder();
+    header(out);
+    out.append("public class GeneratedDecoding {\n");
+
+    int caseWidth = 0;
+    for (EnumType enumType : enums.values()) {
+      for (int value : enumType.values.values()) {
+        caseWidth = Math.max(caseWidth, ("    case " + value + ":").length() + 2);
+      }
+    }
+
+    for (EnumType enumType : enums.values()) {
+      out.append("  public static ").append(enumType.simpleName).append(" ").append(enumType.decoderName).append("(int encoding) {\n");
+      out.append("    switch(encoding) {\n");
+      for (Map.Entry<String, Integer> value : enumType.values.entrySet()) {
+        out.append(pad("    case " + value.getValue() + ":", caseWidth)).append("return ").append(enumType.simpleName).append(".").append(value.getKey()).append(";\n");
+      }
+      out.append("    default: throw new RuntimeException(\"should not be here, got: \" + encoding);\n");
+      out.append("    }\n");
+      out.append("  }\n\n");
+    }
+
+    for (Layout layout : layouts) {
+      for (Field field : layout.fields) {
+        if (field.constant != null) {
+          continue;
+        }
+
+        String name = layout.decoderPrefix + field.name;
+        out.append("  // ").append(name).append(" extracts the ").append(words(field.name)).append(" bits from ")
+          .append(article(words(layout.encoderSuffix), layout.encoderSuffix)).append(" encoding, in the format\n");
+        out.append("  //    ").append(format(layout)).append("\n");
+        out.append("  public static int ").append(name).append("(int encoding) {\n");
+        String shifted = field.shift == 0 ? "encoding" : "(encoding >> " + field.shift + ")";
+        out.append("    return ").append(shifted).append(" & ").append(mask(field.length)).append(";\n");
+        out.append("  }\n\n");
+      }
+    }
+
+    trimTrailingBlankLine(out);
+    out.append("}\n");
+    return out.toString();
+  }
+
+  private void header(StringBuilder out) {
+    out.append("// Code generated by aloha.codegen.MessageCodecGenerator from ").append(schemaName).append(". DO NOT EDIT.\n");
+    out.append("//  Run `./gradlew generateMessageCodecs` after changing the schema.\n\n");
+    out.append("package aloha.communication.basic;\n\n");
+    for (EnumType enumType : enums.values()) {
+      out.append("import ").append(enumType.className).append(";\n");
+    }
+    out.append("\n");
+  }
+
+  private void constants(StringBuilder out, String prefix, int length, String description) {
+    out.append("  // ").append(prefix).append("_ENCODING_LENGTH is the number of bits it takes to encode ").append(description).append("\n");
+    out.append("  public static final int ").append(prefix).append("_ENCODING_LENGTH = ").append(length).append(";\n");
+    out.append("  // ").append(prefix).append("_ENCODING_MASK is a mask with the last ").append(prefix).append("_ENCODING_LENGTH bits set\n");
+    out.append("  public static final int ").append(prefix).append("_ENCODING_MASK = ").append(mask(length)).append(";\n\n");
+  }
+
+  // format returns the format of the given layout, e.g. "<map location bits> | <message type bits>"
+  private static String format(Layout layout) {
+    StringBuilder format = new StringBuilder();
+    for (Field field : layout.fields) {
+      format.append(format.length() == 0 ? "" : " | ").append("<").append(words(field.name)).append(" bits>");
+    }
+    return format.toString();
+  }
+
+  // lengthOf returns the length of the given field type, given the lengths of the layouts laid out so far.
+  private int lengthOf(String type, Map<String, Integer> layoutLengths, int lineNumber) {
+    if (enums.containsKey(type)) {
+      return enums.get(type).length;
+    }
+    if (!fieldTypes.containsKey(type)) {
+      throw new IllegalArgumentException(schemaName + ":" + lineNumber + ": unknown field type: " + type);
+    }
+
+    FieldType fieldType = fieldTypes.get(type);
+    if (fieldType.layout != null) {
+      if (!layoutLengths.containsKey(fieldType.layout)) {
+        throw new IllegalArgumentException(schemaName + ":" + lineNumber + ": field type " + type + " is laid out as " + fieldType.layout
+          + ", which isn't a layout declared before it's used");
+      }
+      fieldType.length = layoutLengths.get(fieldType.layout);
+    }
+    return fieldType.length;
+  }
+
+  private static String rest(String line, int numTokens) {
+    String rest = line;
+    for (int i = 0; i < numTokens; i++) {
+      rest = rest.substring(rest.indexOf(' ') + 1).trim();
+    }
+    return rest;
+  }
+
+  private static int mask(int length) {
+    return (1 << length) - 1;
+  }
+
+  private static String pad(String s, int width) {
+    StringBuilder padded = new StringBuilder(s).append(' ');
+    while (padded.length() < width) {
+      padded.append(' ');
+    }
+    return padded.toString();
+  }
+
+  private static void trimTrailingBlankLine(StringBuilder out) {
+    if (out.length() >= 2 && out.charAt(out.length() - 1) == '\n' && out.charAt(out.length() - 2) == '\n') {
+      out.setLength(out.length() - 1);
+    }
+  }
+
+  // words splits a camel case name into lower case words, e.g. "HQStateMessage" becomes "hq state message"
+  private static String words(String name) {
+    return upperSnake(name).toLowerCase().replace('_', ' ');
+  }
+
+  // article prefixes the given words with "a" or "an". Acronyms like "hq" are read letter by letter.
+  private static String article(String words, String name) {
+    boolean isAcronym = name.length() > 1 && Character.isUpperCase(name.charAt(1));
+    String vowelSounds = isAcronym ? "aefhilmnorsx" : "aeiou";
+    return (vowelSounds.indexOf(words.charAt(0)) >= 0 ? "an " : "a ") + words;
+  }
+
+  // upperSnake converts a camel case name to upper snake case, e.g. "HQStateMessage" becomes "HQ_STATE_MESSAGE"
+  private static String upperSnake(String name) {
+    StringBuilder snake = new StringBuilder();
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      boolean isWordStart = i > 0 && Character.isUpperCase(c)
+        && (Character.isLowerCase(name.charAt(i - 1)) || (i + 1 < name.length() && Character.isLowerCase(name.charAt(i + 1))));
+      if (isWordStart) {
+        snake.append('_');
+      }
+      snake.append(Character.toUpperCase(c));
+    }
+    return snake.toString();
+  }
+
+  // lowerCamel lower cases the leading upper case letters of a name, e.g. "HQState" becomes "hqState"
+  private static String lowerCamel(String name) {
+    int numLeadingUpperCase = 0;
+    while (numLeadingUpperCase < name.length() && Character.isUpperCase(name.charAt(numLeadingUpperCase))) {
+      numLeadingUpperCase++;
+    }
+    if (numLeadingUpperCase > 1 && numLeadingUpperCase < name.length()) {
+      numLeadingUpperCase--;
+    }
+    return name.substring(0, numLeadingUpperCase).toLowerCase() + name.substring(numLeadingUpperCase);
+  }
+}
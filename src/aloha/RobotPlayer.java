@@ -15,7 +15,12 @@ import aloha.robots.carrier.*;
 import aloha.robots.destabilizer.*;
 import aloha.robots.headquarters.*;
 import aloha.robots.launcher.*;
+import aloha.communication.Census;
+import aloha.communication.Islands;
+import aloha.communication.Sectors;
+import aloha.communication.Symmetry;
 import aloha.utils.Log;
+import aloha.utils.MapMemory;
 
 /**
  * RobotPlayer is the class that describes your main robot strategy.
@@ -32,6 +37,12 @@ public strictfp class RobotPlayer {
     static int birthRound = -1;
     static final boolean printBytecode = false;
 
+    // END_OF_TURN_BYTECODES is the number of bytecodes the end of the turn (the finally block in run) needs: the census,
+    //  sector and sky-island writes, and sharing the symmetries we eliminated. Symmetry and MapMemory only do their
+    //  optional work with more than this left. Robots that spend the rest of their turn on optional work must keep
+    //  this many bytecodes, or they run past the turn.
+    public static final int END_OF_TURN_BYTECODES = 2500;
+
     public static Team OPPONENT = null;
     public static Team MY_TEAM = null;
 
@@ -108,6 +119,20 @@ public strictfp class RobotPlayer {
                 e.printStackTrace();
 
             } finally {
+                // Add ourselves to the census, mark the sector we're in as explored, share the sky-islands we
+                //  couldn't share before, compare what we sense against the map's possible symmetries, and remember
+                //  the tiles around us. These are updated at the end of the turn, once we know where we'll be.
+                try {
+                    Census.increment(rc);
+                    Sectors.markExplored(rc);
+                    Islands.flush(rc);
+                    Symmetry.update(rc);
+                    MapMemory.update(rc);
+                } catch (GameActionException e) {
+                    System.out.println(rc.getType() + " Exception");
+                    e.printStackTrace();
+                }
+
                 // Signify we've done everything we want to do, thereby ending our turn.
                 // This will make our code wait until the next turn, and then perform this loop again.
                 Clock.yield();
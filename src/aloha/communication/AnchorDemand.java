@@ -0,0 +1,86 @@
+package aloha.communication;
+
+import battlecode.common.*;
+import aloha.communication.basic.*;
+
+// AnchorDemand counts the carriers waiting for an anchor at each headquarters, so the headquarters build anchors
+//  when they're wanted instead of guessing. Every waiting carrier adds itself to the counter of its headquarters
+//  once per turn, and each headquarters collects and clears its counter at the start of its turn. Since the
+//  headquarters take their turns before any other robot, a counter holds the carriers that waited since the
+//  headquarters' last turn. A carrier that picks up its anchor, gives up waiting or dies simply stops adding itself.
+//
+// The counters are stored in a single slot (see SharedArrayLayout), 4 bits per headquarters, in headquarter state order.
+public class AnchorDemand {
+  // DEMAND_ENCODING_LENGTH is the number of bits each headquarters' counter takes up in the slot.
+  private static final int DEMAND_ENCODING_LENGTH = 4;
+  // MAX_DEMAND is the highest count a counter can hold.
+  private static final int MAX_DEMAND = 15;
+
+  // increment adds this carrier to the demand of the headquarters at the given location. Returns false if we
+  //  can't write to the shared array.
+  public static boolean increment(MapLocation hqLoc, RobotController rc) throws GameActionException {
+    int hqIndex = indexOf(hqLoc, rc);
+    if (hqIndex == -1) {
+      return false;
+    }
+
+    int shift = hqIndex * DEMAND_ENCODING_LENGTH;
+    int encoding = SharedArray.read(SharedArrayLayout.ANCHOR_DEMAND_INDEX, rc);
+
+    // Saturate instead of overflowing into the next headquarters' counter
+    if (((encoding >> shift) & MAX_DEMAND) == MAX_DEMAND) {
+      return true;
+    }
+
+    int newEncoding = encoding + (1 << shift);
+    if (!rc.canWriteSharedArray(SharedArrayLayout.ANCHOR_DEMAND_INDEX, newEncoding)) {
+      return false;
+    }
+
+    SharedArray.write(SharedArrayLayout.ANCHOR_DEMAND_INDEX, newEncoding, rc);
+    return true;
+  }
+
+  // demandOf returns the number of carriers that added themselves to the demand of the headquarters at the given
+  //  location since the headquarters' last turn.
+  public static int demandOf(MapLocation hqLoc, RobotController rc) throws GameActionException {
+    int hqIndex = indexOf(hqLoc, rc);
+    if (hqIndex == -1) {
+      return 0;
+    }
+
+    return (SharedArray.read(SharedArrayLayout.ANCHOR_DEMAND_INDEX, rc) >> (hqIndex * DEMAND_ENCODING_LENGTH)) & MAX_DEMAND;
+  }
+
+  // collect returns the demand of our headquarters since our last turn, and clears it. It should be called at
+  //  the start of the headquarters' turn.
+  public static int collect(RobotController rc) throws GameActionException {
+    int hqIndex = indexOf(rc.getLocation(), rc);
+    if (hqIndex == -1) {
+      return 0;
+    }
+
+    int shift = hqIndex * DEMAND_ENCODING_LENGTH;
+    int encoding = SharedArray.read(SharedArrayLayout.ANCHOR_DEMAND_INDEX, rc);
+    int demand = (encoding >> shift) & MAX_DEMAND;
+    int newEncoding = encoding & ~(MAX_DEMAND << shift);
+    if (newEncoding != encoding && rc.canWriteSharedArray(SharedArrayLayout.ANCHOR_DEMAND_INDEX, newEncoding)) {
+      SharedArray.write(SharedArrayLayout.ANCHOR_DEMAND_INDEX, newEncoding, rc);
+    }
+
+    return demand;
+  }
+
+  // indexOf returns the headquarter state index of the headquarters at the given location, or -1 if there's none.
+  private static int indexOf(MapLocation hqLoc, RobotController rc) throws GameActionException {
+    int locEncoding = Encoding.of(hqLoc);
+    for (int i = 0; i < SharedArrayLayout.HQ_STATE_LENGTH; i++) {
+      int encoding = SharedArray.read(SharedArrayLayout.HQ_STATE_FIRST_INDEX + i, rc);
+      if (encoding != 0 && Decoding.hqStateMessageMapLocation(encoding) == locEncoding) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+}
@@ -0,0 +1,107 @@
+package aloha.communication;
+
+import battlecode.common.*;
+import aloha.communication.basic.*;
+
+// Census counts the robots of each type that are alive, using one counter per type per round parity. During a round,
+//  every robot adds itself to the counters of the current round's parity, while the counters of the other parity hold
+//  the complete count of the previous round, which is what every robot reads.
+//
+// HQ 0 is the first robot to take its turn every round, so it resets the counters of the current round's parity
+//  (which still hold the count of two rounds ago) before any other robot adds itself.
+//
+// Robots can only add themselves when they can write to the shared array, so robots out of range of an HQ,
+//  amplifier or sky-island are not counted. Launchers spend most of their life out there, so they aren't counted
+//  at all. Their count is what's left of the exact rc.getRobotCount() after the headquarters and the counted
+//  carriers and amplifiers, so the total always adds up. Carriers away at a far well are counted as launchers until
+//  they come back, which errs towards building carriers rather than launchers.
+public class Census {
+  // COUNT_ENCODING_LENGTH is the number of bits each parity's counter takes up in a census slot, in the format
+  //    <odd round count bits> | <even round count bits>
+  private static final int COUNT_ENCODING_LENGTH = 8;
+  private static final int COUNT_ENCODING_MASK = 255;
+
+  // increment adds this robot to the census of the current round.
+  public static void increment(RobotController rc) throws GameActionException {
+    int idx = indexOf(rc.getType());
+    if (idx == -1) {
+      return;
+    }
+
+    int shift = parityShift(rc.getRoundNum());
+    int encoding = SharedArray.read(idx, rc);
+    int count = (encoding >> shift) & COUNT_ENCODING_MASK;
+
+    // Saturate instead of overflowing into the other parity's counter
+    if (count == COUNT_ENCODING_MASK) {
+      return;
+    }
+
+    int newEncoding = encoding + (1 << shift);
+    if (!rc.canWriteSharedArray(idx, newEncoding)) {
+      return;
+    }
+    SharedArray.write(idx, newEncoding, rc);
+  }
+
+  // reset clears the census of the current round, if we're HQ 0. It should be called at the start of the HQ's turn.
+  public static void reset(RobotController rc) throws GameActionException {
+    // HQ 0 is the HQ whose location is in the first headquarter state slot
+    int hqStateEncoding = SharedArray.read(SharedArrayLayout.HQ_STATE_FIRST_INDEX, rc);
+    if (hqStateEncoding == 0 || Decoding.hqStateMessageMapLocation(hqStateEncoding) != Encoding.of(rc.getLocation())) {
+      return;
+    }
+
+    int shift = parityShift(rc.getRoundNum());
+    for (int i = 0; i < SharedArrayLayout.CENSUS_LENGTH; i++) {
+      int idx = SharedArrayLayout.CENSUS_FIRST_INDEX + i;
+      int encoding = SharedArray.read(idx, rc);
+      int newEncoding = encoding & ~(COUNT_ENCODING_MASK << shift);
+      if (newEncoding != encoding && rc.canWriteSharedArray(idx, newEncoding)) {
+        SharedArray.write(idx, newEncoding, rc);
+      }
+    }
+  }
+
+  // countOf returns the number of robots of the given type that were counted in the previous round. Launchers are
+  //  estimated from the robot count instead (see above).
+  public static int countOf(RobotType robotType, RobotController rc) throws GameActionException {
+    if (robotType == RobotType.LAUNCHER) {
+      // The count of the previous round is compared with this round's robot count, which may include robots built
+      //  since, so it can't go below 0
+      int numOthers = numHeadquarters(rc) + countOf(RobotType.CARRIER, rc) + countOf(RobotType.AMPLIFIER, rc);
+      return Math.max(rc.getRobotCount() - numOthers, 0);
+    }
+
+    int idx = indexOf(robotType);
+    if (idx == -1) {
+      throw new RuntimeException("should not be here");
+    }
+
+    return (SharedArray.read(idx, rc) >> parityShift(rc.getRoundNum()-1)) & COUNT_ENCODING_MASK;
+  }
+
+  private static int numHeadquarters(RobotController rc) throws GameActionException {
+    int numHeadquarters = 0;
+    for (int i = 0; i < SharedArrayLayout.HQ_STATE_LENGTH; i++) {
+      if (SharedArray.read(SharedArrayLayout.HQ_STATE_FIRST_INDEX + i, rc) != 0) {
+        numHeadquarters++;
+      }
+    }
+
+    return numHeadquarters;
+  }
+
+  private static int parityShift(int roundNum) {
+    return (roundNum & 1) * COUNT_ENCODING_LENGTH;
+  }
+
+  // indexOf returns the index of the census slot of the given robot type, or -1 if the robot type is not counted.
+  private static int indexOf(RobotType robotType) {
+    switch(robotType) {
+      case CARRIER:       return SharedArrayLayout.CENSUS_FIRST_INDEX;
+      case AMPLIFIER:     return SharedArrayLayout.CENSUS_FIRST_INDEX + 1;
+      default:            return -1;
+    }
+  }
+}
@@ -3,13 +3,20 @@ package aloha.communication;
 import battlecode.common.*;
 import java.util.*;
 import aloha.communication.basic.*;
+import aloha.communication.registry.*;
 
 // Communicators can send and receive messages
 public interface Communicator {
   public boolean sendMessage(Message message, RobotController rc) throws GameActionException;
   public List<Message> receiveMessages(MessageType messageType, RobotController rc) throws GameActionException;
+  // receiveInto fills the caller-owned buffer with the raw encodings of the received messages of the given type, and
+  //  returns the number of encodings written. Unlike receiveMessages, no objects are allocated per message.
+  public int receiveInto(MessageType messageType, int[] out, RobotController rc) throws GameActionException;
+  // compact removes duplicate and stale messages from the shared array, so receivers decode fewer messages. It's
+  //  meant to be called by headquarters, which have bytecode to spare, and does nothing for other robots.
+  public void compact(RobotController rc) throws GameActionException;
 
   public static Communicator newCommunicator() {
-    return new BasicCommunicator();
+    return new RegistryCommunicator();
   }
 }
@@ -0,0 +1,81 @@
+package aloha.communication;
+
+import battlecode.common.*;
+import aloha.communication.basic.*;
+
+// FocusTargets is a short-lived channel of enemies for launchers to focus fire on, stored in the shared array
+//  (see SharedArrayLayout). The first launcher to attack in an area during a round publishes its target, and the
+//  launchers after it in the same round attack the same target if they can, so enemies die in fewer rounds.
+//
+// Each index holds one target, in the format
+//    <location bits> | <round bits>
+//  where the round bits are the round the target was published in, modulo NUM_ROUNDS and offset by 1 so that a
+//  target is never 0, even at (0, 0). A target is only valid during the round it was published in. The headquarters
+//  clear the targets at the start of every round, so a target's round bits never come around again.
+public class FocusTargets {
+  // ROUND_ENCODING_LENGTH is the number of bits it takes to encode the round of a target
+  private static final int ROUND_ENCODING_LENGTH = 4;
+  // ROUND_ENCODING_MASK is a mask with the last ROUND_ENCODING_LENGTH bits set
+  private static final int ROUND_ENCODING_MASK = 15;
+  // NUM_ROUNDS is the number of distinct round encodings, in [1, NUM_ROUNDS].
+  private static final int NUM_ROUNDS = 15;
+
+  // targetNear returns the location of this round's target that's closest to the given location, within the given
+  //  radius, or null if there's none.
+  public static MapLocation targetNear(MapLocation loc, int radiusSquared, RobotController rc) throws GameActionException {
+    int round = roundOf(rc.getRoundNum());
+    MapLocation closestTarget = null;
+    for (int i = 0; i < SharedArrayLayout.FOCUS_TARGETS_LENGTH; i++) {
+      int encoding = SharedArray.read(SharedArrayLayout.FOCUS_TARGETS_FIRST_INDEX + i, rc);
+      if (encoding == 0 || (encoding & ROUND_ENCODING_MASK) != round) {
+        continue;
+      }
+
+      MapLocation target = Decoding.mapLocation(encoding >>> ROUND_ENCODING_LENGTH);
+      if (loc.distanceSquaredTo(target) <= radiusSquared && (closestTarget == null || loc.distanceSquaredTo(target) < loc.distanceSquaredTo(closestTarget))) {
+        closestTarget = target;
+      }
+    }
+
+    return closestTarget;
+  }
+
+  // reset clears the targets of previous rounds. It should be called at the start of the headquarters' turn.
+  public static void reset(RobotController rc) throws GameActionException {
+    int round = roundOf(rc.getRoundNum());
+    for (int i = 0; i < SharedArrayLayout.FOCUS_TARGETS_LENGTH; i++) {
+      int idx = SharedArrayLayout.FOCUS_TARGETS_FIRST_INDEX + i;
+      int encoding = SharedArray.read(idx, rc);
+      if (encoding != 0 && (encoding & ROUND_ENCODING_MASK) != round && rc.canWriteSharedArray(idx, 0)) {
+        SharedArray.write(idx, 0, rc);
+      }
+    }
+  }
+
+  // publish publishes the given target for the rest of this round, in the first index without a target of this round.
+  //  Returns false if every index has a target of this round, or we can't write to the shared array.
+  public static boolean publish(MapLocation target, RobotController rc) throws GameActionException {
+    int round = roundOf(rc.getRoundNum());
+    for (int i = 0; i < SharedArrayLayout.FOCUS_TARGETS_LENGTH; i++) {
+      int idx = SharedArrayLayout.FOCUS_TARGETS_FIRST_INDEX + i;
+      int encoding = SharedArray.read(idx, rc);
+      if (encoding != 0 && (encoding & ROUND_ENCODING_MASK) == round) {
+        continue;
+      }
+
+      int newEncoding = (Encoding.of(target) << ROUND_ENCODING_LENGTH) | round;
+      if (!rc.canWriteSharedArray(idx, newEncoding)) {
+        return false;
+      }
+
+      SharedArray.write(idx, newEncoding, rc);
+      return true;
+    }
+
+    return false;
+  }
+
+  private static int roundOf(int roundNum) {
+    return roundNum % NUM_ROUNDS + 1;
+  }
+}
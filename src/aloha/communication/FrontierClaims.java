@@ -0,0 +1,58 @@
+package aloha.communication;
+
+import battlecode.common.*;
+
+// FrontierClaims is a team-wide table of the unexplored sectors (see Sectors) explorers are heading to, stored in the
+//  shared array (see SharedArrayLayout). An explorer claims the sector it heads to, and other explorers pick the nearest
+//  unclaimed sector instead, so explorers spread out over the map rather than all heading to the same sector.
+//
+// The table is a bitmask with one bit per sector, 16 sectors per index. The headquarters clear the whole table every
+//  CLAIM_TIMEOUT rounds, before any other robot takes its turn, and explorers renew their claim once they see it's
+//  cleared. A claim of an explorer that died or gave up therefore lasts at most CLAIM_TIMEOUT rounds.
+public class FrontierClaims {
+  // CLAIM_TIMEOUT is the number of rounds between clears of the table.
+  public static final int CLAIM_TIMEOUT = 30;
+
+  // SECTORS_PER_INDEX is the number of sectors each index holds a bit for.
+  private static final int SECTORS_PER_INDEX = 16;
+
+  // isClaimed returns true if an explorer has claimed the given sector since the table was last cleared.
+  public static boolean isClaimed(int sector, RobotController rc) throws GameActionException {
+    return (SharedArray.read(indexOf(sector), rc) & (1 << (sector % SECTORS_PER_INDEX))) != 0;
+  }
+
+  // claim claims the given sector. Returns false if the sector isn't claimed, and we can't write to the shared array.
+  public static boolean claim(int sector, RobotController rc) throws GameActionException {
+    int idx = indexOf(sector);
+    int encoding = SharedArray.read(idx, rc);
+    int newEncoding = encoding | (1 << (sector % SECTORS_PER_INDEX));
+    if (newEncoding == encoding) {
+      return true;
+    }
+
+    if (!rc.canWriteSharedArray(idx, newEncoding)) {
+      return false;
+    }
+
+    SharedArray.write(idx, newEncoding, rc);
+    return true;
+  }
+
+  // expire clears the table every CLAIM_TIMEOUT rounds. It should be called at the start of the headquarters' turn.
+  public static void expire(RobotController rc) throws GameActionException {
+    if (rc.getRoundNum() % CLAIM_TIMEOUT != 0) {
+      return;
+    }
+
+    for (int i = 0; i < SharedArrayLayout.FRONTIER_CLAIMS_LENGTH; i++) {
+      int idx = SharedArrayLayout.FRONTIER_CLAIMS_FIRST_INDEX + i;
+      if (SharedArray.read(idx, rc) != 0 && rc.canWriteSharedArray(idx, 0)) {
+        SharedArray.write(idx, 0, rc);
+      }
+    }
+  }
+
+  private static int indexOf(int sector) {
+    return SharedArrayLayout.FRONTIER_CLAIMS_FIRST_INDEX + sector / SECTORS_PER_INDEX;
+  }
+}
@@ -0,0 +1,124 @@
+package aloha.communication;
+
+import battlecode.common.*;
+import aloha.communication.basic.*;
+
+// Heatmap is a team-wide, decaying count of recent enemy activity per sector (see Sectors), stored in the shared
+//  array (see SharedArrayLayout). Robots add heat to a sector when they see enemies in it, and the headquarters
+//  take the heat out of every sector by one every DECAY_PERIOD rounds, so a sector cools down once the enemies leave.
+//
+// Each sector has a saturating 2-bit count, packed 8 sectors per index.
+public class Heatmap {
+  // MAX_HEAT is the highest heat a sector can have.
+  public static final int MAX_HEAT = 3;
+  // HOT is the heat from which a sector is considered hot.
+  public static final int HOT = 2;
+  // DECAY_PERIOD is the number of rounds between two decays of the heatmap.
+  public static final int DECAY_PERIOD = 8;
+
+  // HEAT_ENCODING_LENGTH is the number of bits each sector takes up in a slot.
+  private static final int HEAT_ENCODING_LENGTH = 2;
+  private static final int SECTORS_PER_INDEX = 16 / HEAT_ENCODING_LENGTH;
+  // LOW_BITS_MASK has the low bit of every sector in a slot set.
+  private static final int LOW_BITS_MASK = 0x5555;
+
+  // add adds heat to the sector of the given location. Returns false if we can't write to the shared array.
+  public static boolean add(MapLocation loc, RobotController rc) throws GameActionException {
+    int sector = Sectors.sectorOf(loc, rc);
+    int idx = SharedArrayLayout.HEAT_FIRST_INDEX + sector / SECTORS_PER_INDEX;
+    int shift = (sector % SECTORS_PER_INDEX) * HEAT_ENCODING_LENGTH;
+    int encoding = SharedArray.read(idx, rc);
+    if (((encoding >> shift) & MAX_HEAT) == MAX_HEAT) {
+      return true;
+    }
+
+    int newEncoding = encoding + (1 << shift);
+    if (!rc.canWriteSharedArray(idx, newEncoding)) {
+      return false;
+    }
+
+    SharedArray.write(idx, newEncoding, rc);
+    return true;
+  }
+
+  public static int heatOf(int sector, RobotController rc) throws GameActionException {
+    int encoding = SharedArray.read(SharedArrayLayout.HEAT_FIRST_INDEX + sector / SECTORS_PER_INDEX, rc);
+    return (encoding >> ((sector % SECTORS_PER_INDEX) * HEAT_ENCODING_LENGTH)) & MAX_HEAT;
+  }
+
+  public static boolean isHot(MapLocation loc, RobotController rc) throws GameActionException {
+    return heatOf(Sectors.sectorOf(loc, rc), rc) >= HOT;
+  }
+
+  // nearestHot returns the hot sector whose center is closest to the given location, or -1 if no sector is hot.
+  public static int nearestHot(MapLocation loc, RobotController rc) throws GameActionException {
+    int nearestSector = -1;
+    int nearestDistance = 0;
+    for (int i = 0; i < SharedArrayLayout.HEAT_LENGTH; i++) {
+      // Skip indices where no sector is hot, which is most of them. Since HOT is 2, a sector is hot if its high bit is set.
+      int encoding = SharedArray.read(SharedArrayLayout.HEAT_FIRST_INDEX + i, rc);
+      if (((encoding >> 1) & LOW_BITS_MASK) == 0) {
+        continue;
+      }
+
+      for (int j = 0; j < SECTORS_PER_INDEX; j++) {
+        int sector = i * SECTORS_PER_INDEX + j;
+        if (sector >= Sectors.NUM_SECTORS) {
+          break;
+        }
+
+        if (((encoding >> (j * HEAT_ENCODING_LENGTH)) & MAX_HEAT) < HOT) {
+          continue;
+        }
+
+        MapLocation center = Sectors.centerOf(sector, rc);
+        int distance = loc.distanceSquaredTo(center);
+        if (nearestSector == -1 || distance < nearestDistance) {
+          nearestSector = sector;
+          nearestDistance = distance;
+        }
+      }
+    }
+
+    return nearestSector;
+  }
+
+  // decay takes one heat out of every sector, every DECAY_PERIOD rounds. It should be called by every headquarters;
+  //  the indices of the heatmap are split between the headquarters by their headquarter state index.
+  public static void decay(RobotController rc) throws GameActionException {
+    if (rc.getRoundNum() % DECAY_PERIOD != 0) {
+      return;
+    }
+
+    // Find our headquarter state index, and the number of headquarters
+    int myLocEncoding = Encoding.of(rc.getLocation());
+    int hqIndex = -1;
+    int numHQs = 0;
+    for (int i = 0; i < SharedArrayLayout.HQ_STATE_LENGTH; i++) {
+      int encoding = SharedArray.read(SharedArrayLayout.HQ_STATE_FIRST_INDEX + i, rc);
+      if (encoding == 0) {
+        continue;
+      }
+
+      if (Decoding.hqStateMessageMapLocation(encoding) == myLocEncoding) {
+        hqIndex = i;
+      }
+      numHQs++;
+    }
+    if (hqIndex == -1) {
+      return;
+    }
+
+    for (int i = hqIndex; i < SharedArrayLayout.HEAT_LENGTH; i += numHQs) {
+      int idx = SharedArrayLayout.HEAT_FIRST_INDEX + i;
+      int encoding = SharedArray.read(idx, rc);
+
+      // Subtract one from every sector with heat. A sector has heat if either of its bits are set, and
+      //  subtracting one from a sector with heat never borrows from the sector next to it.
+      int newEncoding = encoding - ((encoding | (encoding >> 1)) & LOW_BITS_MASK);
+      if (newEncoding != encoding && rc.canWriteSharedArray(idx, newEncoding)) {
+        SharedArray.write(idx, newEncoding, rc);
+      }
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package aloha.communication;
+
+import battlecode.common.*;
+import aloha.communication.basic.*;
+
+// Islands is a table of sky-islands indexed by island ID. Every robot keeps its own table of every island it
+//  has seen or heard of, and the team shares a table in the shared array (see SharedArrayLayout).
+//
+// The shared table has two parts. The owners of every island are packed 2 bits per island, ISLANDS_PER_INDEX
+//  islands per index, so the island with ID id is at index (id-1) / ISLANDS_PER_INDEX. The locations are best-effort:
+//  each location index holds one island, in the format
+//    <location bits> | <group bits>
+//  where the island with ID id goes to index (id-1) % ISLAND_LOCATIONS_LENGTH, and its group is
+//  (id-1) / ISLAND_LOCATIONS_LENGTH. Carriers only look for neutral islands, so only neutral islands take a location
+//  index, and they take it over from an island that's no longer neutral. Islands past MAX_LOCATED_ISLAND_ID, and
+//  islands whose location index is held by another neutral island, only have their owner shared.
+public class Islands {
+  // The owners of an island. UNKNOWN is the owner of islands we know nothing about.
+  public static final int UNKNOWN = 0;
+  public static final int NEUTRAL = 1;
+  public static final int FRIENDLY = 2;
+  public static final int ENEMY = 3;
+
+  // OWNER_ENCODING_LENGTH is the number of bits it takes to encode an owner
+  private static final int OWNER_ENCODING_LENGTH = 2;
+  // OWNER_ENCODING_MASK is a mask with the last OWNER_ENCODING_LENGTH bits set
+  private static final int OWNER_ENCODING_MASK = 3;
+  // ISLANDS_PER_INDEX is the number of island owners packed into each owner index.
+  public static final int ISLANDS_PER_INDEX = 16 / OWNER_ENCODING_LENGTH;
+  // GROUP_ENCODING_LENGTH is the number of bits it takes to encode a group
+  private static final int GROUP_ENCODING_LENGTH = 4;
+  // GROUP_ENCODING_MASK is a mask with the last GROUP_ENCODING_LENGTH bits set
+  private static final int GROUP_ENCODING_MASK = 15;
+
+  // MAX_LOCATED_ISLAND_ID is the highest island ID that fits in the location indices.
+  public static final int MAX_LOCATED_ISLAND_ID = SharedArrayLayout.ISLAND_LOCATIONS_LENGTH * (GROUP_ENCODING_MASK+1);
+
+  // locations and owners are this robot's table, indexed by island ID. Island IDs start at 1.
+  private static final MapLocation[] locations = new MapLocation[GameConstants.MAX_NUMBER_ISLANDS+1];
+  private static final int[] owners = new int[GameConstants.MAX_NUMBER_ISLANDS+1];
+  // unshared is a bitmask of the island IDs whose latest owner we haven't written to the shared table yet.
+  private static long unshared = 0;
+  // receivedRound is the round the shared table was last merged into ours.
+  private static int receivedRound = -1;
+
+  // update records the given island in our table, and tries to write it to the shared table. If we can't write
+  //  to the shared table, the island is written by a later call to flush.
+  public static void update(int id, MapLocation loc, Team team, RobotController rc) throws GameActionException {
+    int owner = ownerOf(team, rc);
+    if (locations[id] != null && owners[id] == owner) {
+      return;
+    }
+
+    locations[id] = loc;
+    owners[id] = owner;
+    unshared |= 1L << id;
+    share(id, rc);
+  }
+
+  // flush writes the islands we couldn't write before to the shared table, if we can write to it now.
+  public static void flush(RobotController rc) throws GameActionException {
+    long ids = unshared;
+    while (ids != 0) {
+      int id = Long.numberOfTrailingZeros(ids);
+      ids &= ids - 1;
+      share(id, rc);
+    }
+  }
+
+  // ownerOf returns the owner of the island with the given ID, or UNKNOWN if we know nothing about the island.
+  public static int ownerOf(int id, RobotController rc) throws GameActionException {
+    receive(rc);
+    return owners[id];
+  }
+
+  public static MapLocation locationOf(int id, RobotController rc) throws GameActionException {
+    receive(rc);
+    return locations[id];
+  }
+
+  // closest returns the ID of the island with the given owner that's closest to the given location, or -1 if there's
+  //  none. Islands we only know the owner of are skipped.
+  public static int closest(int owner, MapLocation loc, RobotController rc) throws GameActionException {
+    receive(rc);
+
+    int closestId = -1;
+    int closestDistance = 0;
+    for (int id = 1; id <= GameConstants.MAX_NUMBER_ISLANDS; id++) {
+      if (owners[id] != owner || locations[id] == null) {
+        continue;
+      }
+
+      int distance = loc.distanceSquaredTo(locations[id]);
+      if (closestId == -1 || distance < closestDistance) {
+        closestId = id;
+        closestDistance = distance;
+      }
+    }
+
+    return closestId;
+  }
+
+  public static int ownerOf(Team team, RobotController rc) {
+    if (team == Team.NEUTRAL) {
+      return NEUTRAL;
+    } else if (team == rc.getTeam()) {
+      return FRIENDLY;
+    } else {
+      return ENEMY;
+    }
+  }
+
+  // share writes the owner of the island with the given ID to the shared table, and its location too if it's neutral
+  //  and its location index is free. The island stays unshared if we can't write to the shared table.
+  private static void share(int id, RobotController rc) throws GameActionException {
+    int idx = SharedArrayLayout.ISLAND_OWNERS_FIRST_INDEX + (id-1) / ISLANDS_PER_INDEX;
+    int shift = ((id-1) % ISLANDS_PER_INDEX) * OWNER_ENCODING_LENGTH;
+    int encoding = SharedArray.read(idx, rc);
+    int newEncoding = (encoding & ~(OWNER_ENCODING_MASK << shift)) | (owners[id] << shift);
+    if (!rc.canWriteSharedArray(idx, newEncoding)) {
+      return;
+    }
+
+    if (newEncoding != encoding) {
+      SharedArray.write(idx, newEncoding, rc);
+    }
+    unshared &= ~(1L << id);
+
+    if (owners[id] == NEUTRAL && id <= MAX_LOCATED_ISLAND_ID) {
+      shareLocation(id, rc);
+    }
+  }
+
+  // shareLocation writes the location of the neutral island with the given ID to its location index, unless another
+  //  neutral island holds it.
+  private static void shareLocation(int id, RobotController rc) throws GameActionException {
+    int idx = SharedArrayLayout.ISLAND_LOCATIONS_FIRST_INDEX + (id-1) % SharedArrayLayout.ISLAND_LOCATIONS_LENGTH;
+    int encoding = (Encoding.of(locations[id]) << GROUP_ENCODING_LENGTH) | (id-1) / SharedArrayLayout.ISLAND_LOCATIONS_LENGTH;
+    int existingEncoding = SharedArray.read(idx, rc);
+    if (existingEncoding == encoding) {
+      return;
+    }
+
+    if (existingEncoding != 0 && ownerOf(idOf(idx, existingEncoding), rc) == NEUTRAL) {
+      return;
+    }
+
+    if (rc.canWriteSharedArray(idx, encoding)) {
+      SharedArray.write(idx, encoding, rc);
+    }
+  }
+
+  // idOf returns the ID of the island held by the given location index.
+  private static int idOf(int idx, int encoding) {
+    int group = encoding & GROUP_ENCODING_MASK;
+    return group * SharedArrayLayout.ISLAND_LOCATIONS_LENGTH + (idx - SharedArrayLayout.ISLAND_LOCATIONS_FIRST_INDEX) + 1;
+  }
+
+  // receive merges the shared table into ours, once per round. Islands we haven't shared yet keep our owner, since
+  //  it's newer than the shared one.
+  private static void receive(RobotController rc) throws GameActionException {
+    if (receivedRound == rc.getRoundNum()) {
+      return;
+    }
+    receivedRound = rc.getRoundNum();
+
+    int numIslands = rc.getIslandCount();
+    for (int i = 0; i < SharedArrayLayout.ISLAND_OWNERS_LENGTH; i++) {
+      int encoding = SharedArray.read(SharedArrayLayout.ISLAND_OWNERS_FIRST_INDEX + i, rc);
+      for (int id = i * ISLANDS_PER_INDEX + 1; encoding != 0 && id <= numIslands; id++) {
+        int owner = encoding & OWNER_ENCODING_MASK;
+        encoding >>>= OWNER_ENCODING_LENGTH;
+        if (owner != UNKNOWN && (unshared & (1L << id)) == 0) {
+          owners[id] = owner;
+        }
+      }
+    }
+
+    for (int i = 0; i < SharedArrayLayout.ISLAND_LOCATIONS_LENGTH; i++) {
+      int idx = SharedArrayLayout.ISLAND_LOCATIONS_FIRST_INDEX + i;
+      int encoding = SharedArray.read(idx, rc);
+      if (encoding == 0) {
+        continue;
+      }
+
+      int id = idOf(idx, encoding);
+      if (id <= GameConstants.MAX_NUMBER_ISLANDS && locations[id] == null) {
+        locations[id] = Decoding.mapLocation(encoding >>> GROUP_ENCODING_LENGTH);
+      }
+    }
+  }
+}
@@ -0,0 +1,213 @@
+package aloha.communication;
+
+import battlecode.common.*;
+import aloha.communication.registry.RegistryCommunicator;
+import aloha.utils.MapMemory;
+
+// Leases is a team-wide table of collection tiles claimed by carriers, stored in the shared array (see SharedArrayLayout).
+//  A carrier can only collect from a well while standing on one of the (at most 9) tiles within reach of the well, so
+//  a carrier claims one of those tiles before heading to a well, and other carriers pick another well once every tile
+//  of a well is claimed. Claims expire unless they're renewed, so a lost carrier doesn't block a tile forever.
+//
+// Each index holds the claims at one well, in the format
+//    <well slot bits> | <claimed tile bits> | <epoch bits>
+//  where the well slot is the well's slot in the well registry (see RegistryCommunicator), and there is one claimed
+//  tile bit per tile within reach of the well. The epoch is the LEASE_TIMEOUT-round period the claims were last
+//  renewed in, in [1, NUM_EPOCHS] so that an entry is never 0. An entry stays live for the epoch after it too, and
+//  the first claim of a new epoch drops the claims that weren't renewed yet, so a claim lasts between LEASE_TIMEOUT and
+//  2*LEASE_TIMEOUT rounds. Carriers renew their claim every turn, so a live carrier's claim is back within a round.
+//
+// The table holds LEASES_LENGTH wells at once. Once it's full, every other well counts as saturated, so carriers
+//  spread over the wells in the table rather than crowd a well no one can claim tiles at. Wells that aren't in the
+//  registry can't be claimed, and carriers head to them without a lease.
+public class Leases {
+  // LEASE_TIMEOUT is the number of rounds per epoch (see above).
+  public static final int LEASE_TIMEOUT = 40;
+
+  // NUM_EPOCHS is the number of distinct epochs. Epochs wrap around, so expired entries must be cleared (see expire)
+  //  before their epoch comes around again.
+  private static final int NUM_EPOCHS = 15;
+
+  // EPOCH_ENCODING_LENGTH is the number of bits it takes to encode an epoch
+  private static final int EPOCH_ENCODING_LENGTH = 4;
+  // EPOCH_ENCODING_MASK is a mask with the last EPOCH_ENCODING_LENGTH bits set
+  private static final int EPOCH_ENCODING_MASK = 15;
+  // TILES_ENCODING_LENGTH is the number of bits it takes to encode the claimed tiles, one per tile within reach of a well
+  private static final int TILES_ENCODING_LENGTH = 9;
+  // TILES_ENCODING_MASK is a mask with the last TILES_ENCODING_LENGTH bits set
+  private static final int TILES_ENCODING_MASK = 511;
+  // WELL_SLOT_SHIFT is where the well slot starts. The 3 bits above it fit every slot of the well registry.
+  private static final int WELL_SLOT_SHIFT = TILES_ENCODING_LENGTH + EPOCH_ENCODING_LENGTH;
+
+  // COLLECTION_RADIUS_SQUARED is the radius around a well within which carriers can collect from it.
+  private static final int COLLECTION_RADIUS_SQUARED = 2;
+
+  // claim claims a collection tile at the given well, and returns it. If tile is a tile at the well that we already hold,
+  //  its lease is renewed instead. Returns the tile we hold, or null if we don't hold any, because the well is saturated
+  //  or the lease table is full.
+  public static MapLocation claim(MapLocation well, MapLocation tile, RobotController rc) throws GameActionException {
+    if (!rc.canWriteSharedArray(SharedArrayLayout.LEASES_FIRST_INDEX, 0)) {
+      return tile;
+    }
+
+    int wellSlot = RegistryCommunicator.slotOf(well, rc);
+    if (wellSlot == -1) {
+      return tile;
+    }
+
+    int epoch = epochOf(rc.getRoundNum());
+    int idx = indexOf(wellSlot, epoch, rc);
+    if (idx == -1) {
+      return null;
+    }
+
+    int encoding = SharedArray.read(idx, rc);
+    int claimedTiles = claimedTilesOf(encoding, wellSlot, epoch);
+    if (tile == null || well.distanceSquaredTo(tile) > COLLECTION_RADIUS_SQUARED) {
+      tile = freeTileOf(well, claimedTiles, rc);
+      if (tile == null) {
+        return null;
+      }
+    }
+
+    // Claims that weren't renewed since the last epoch are dropped once we renew ours in this one
+    if ((encoding & EPOCH_ENCODING_MASK) != epoch) {
+      claimedTiles = 0;
+    }
+
+    claimedTiles |= tileBitOf(well, tile);
+    SharedArray.write(idx, (wellSlot << WELL_SLOT_SHIFT) | (claimedTiles << EPOCH_ENCODING_LENGTH) | epoch, rc);
+    return tile;
+  }
+
+  // release gives up the lease of the given tile, if we can write to the lease table. Otherwise the lease expires on its own.
+  public static void release(MapLocation tile, RobotController rc) throws GameActionException {
+    if (tile == null || !rc.canWriteSharedArray(SharedArrayLayout.LEASES_FIRST_INDEX, 0)) {
+      return;
+    }
+
+    int epoch = epochOf(rc.getRoundNum());
+    for (int i = 0; i < SharedArrayLayout.LEASES_LENGTH; i++) {
+      int idx = SharedArrayLayout.LEASES_FIRST_INDEX + i;
+      int encoding = SharedArray.read(idx, rc);
+      if (!isLive(encoding, epoch)) {
+        continue;
+      }
+
+      MapLocation well = RegistryCommunicator.wellAt(encoding >>> WELL_SLOT_SHIFT, rc);
+      if (well == null || well.distanceSquaredTo(tile) > COLLECTION_RADIUS_SQUARED) {
+        continue;
+      }
+
+      int bit = tileBitOf(well, tile) << EPOCH_ENCODING_LENGTH;
+      if ((encoding & bit) != 0) {
+        int newEncoding = encoding & ~bit;
+        SharedArray.write(idx, (newEncoding & (TILES_ENCODING_MASK << EPOCH_ENCODING_LENGTH)) == 0 ? 0 : newEncoding, rc);
+        return;
+      }
+    }
+  }
+
+  // isSaturated returns true if every collection tile at the given well is claimed by another carrier, or if the
+  //  lease table is full and has no room for the well.
+  public static boolean isSaturated(MapLocation well, RobotController rc) throws GameActionException {
+    int wellSlot = RegistryCommunicator.slotOf(well, rc);
+    if (wellSlot == -1) {
+      return false;
+    }
+
+    int epoch = epochOf(rc.getRoundNum());
+    int idx = indexOf(wellSlot, epoch, rc);
+    if (idx == -1) {
+      return true;
+    }
+
+    // Most wells have no claims at all, so check that before looking at the tiles around the well
+    int claimedTiles = claimedTilesOf(SharedArray.read(idx, rc), wellSlot, epoch);
+    return claimedTiles != 0 && freeTileOf(well, claimedTiles, rc) == null;
+  }
+
+  // expire clears the entries past their epoch, so that their epoch doesn't come around again. It should be called by
+  //  the headquarters every turn.
+  public static void expire(RobotController rc) throws GameActionException {
+    int epoch = epochOf(rc.getRoundNum());
+    for (int i = 0; i < SharedArrayLayout.LEASES_LENGTH; i++) {
+      int idx = SharedArrayLayout.LEASES_FIRST_INDEX + i;
+      int encoding = SharedArray.read(idx, rc);
+      if (encoding != 0 && !isLive(encoding, epoch) && rc.canWriteSharedArray(idx, 0)) {
+        SharedArray.write(idx, 0, rc);
+      }
+    }
+  }
+
+  // indexOf returns the index of the live entry of the well in the given registry slot, or else the index of the first
+  //  entry that isn't live, or -1 if the table is full.
+  private static int indexOf(int wellSlot, int epoch, RobotController rc) throws GameActionException {
+    int freeIdx = -1;
+    for (int i = 0; i < SharedArrayLayout.LEASES_LENGTH; i++) {
+      int idx = SharedArrayLayout.LEASES_FIRST_INDEX + i;
+      int encoding = SharedArray.read(idx, rc);
+      if (!isLive(encoding, epoch)) {
+        if (freeIdx == -1) {
+          freeIdx = idx;
+        }
+      } else if ((encoding >>> WELL_SLOT_SHIFT) == wellSlot) {
+        return idx;
+      }
+    }
+
+    return freeIdx;
+  }
+
+  // claimedTilesOf returns the claimed tile bits of the given entry, if it's the live entry of the well in the given
+  //  registry slot, or 0 otherwise.
+  private static int claimedTilesOf(int encoding, int wellSlot, int epoch) {
+    if (!isLive(encoding, epoch) || (encoding >>> WELL_SLOT_SHIFT) != wellSlot) {
+      return 0;
+    }
+
+    return (encoding >> EPOCH_ENCODING_LENGTH) & TILES_ENCODING_MASK;
+  }
+
+  // freeTileOf returns a tile within reach of the given well that's on the map, passable (if we can sense it), and not
+  //  in claimedTiles, or null if there's none. Tiles closer to the well are preferred, so carriers don't stand in each
+  //  other's way.
+  private static MapLocation freeTileOf(MapLocation well, int claimedTiles, RobotController rc) throws GameActionException {
+    MapLocation freeTile = null;
+    for (int dx = -1; dx <= 1; dx++) {
+      for (int dy = -1; dy <= 1; dy++) {
+        MapLocation tile = well.translate(dx, dy);
+        if (freeTile != null && well.distanceSquaredTo(freeTile) <= well.distanceSquaredTo(tile)) {
+          continue;
+        }
+
+        if ((claimedTiles & tileBitOf(well, tile)) != 0 || !rc.onTheMap(tile) || MapMemory.isWall(tile, rc)) {
+          continue;
+        }
+
+        freeTile = tile;
+      }
+    }
+
+    return freeTile;
+  }
+
+  // tileBitOf returns the claimed tile bit of the given tile, which must be within reach of the given well.
+  private static int tileBitOf(MapLocation well, MapLocation tile) {
+    return 1 << ((tile.x - well.x + 1) * 3 + (tile.y - well.y + 1));
+  }
+
+  // isLive returns true if the given entry exists and was renewed in the given epoch or the one before it.
+  private static boolean isLive(int encoding, int epoch) {
+    if (encoding == 0) {
+      return false;
+    }
+
+    int entryEpoch = encoding & EPOCH_ENCODING_MASK;
+    return entryEpoch == epoch || entryEpoch == (epoch == 1 ? NUM_EPOCHS : epoch - 1);
+  }
+
+  private static int epochOf(int roundNum) {
+    return (roundNum / LEASE_TIMEOUT) % NUM_EPOCHS + 1;
+  }
+}
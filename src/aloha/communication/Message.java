@@ -12,12 +12,15 @@ public class Message {
   public final MapLocation loc;
   public final Entity recipient;
   public final HeadquartersState hqState;
+  // roundNum is the round the information in a timestamped message was observed, or 0 if it's not known.
+  public final int roundNum;
 
-  private Message(MessageType messageType, Entity recipient, MapLocation loc, HeadquartersState hqState) {
+  private Message(MessageType messageType, Entity recipient, MapLocation loc, HeadquartersState hqState, int roundNum) {
     this.messageType = messageType;
     this.recipient = recipient;
     this.loc = loc;
     this.hqState = hqState;
+    this.roundNum = roundNum;
   }
 
   public static Builder builder(MessageType messageType) {
@@ -30,6 +33,7 @@ public class Message {
     private Entity recipient;
     private MapLocation loc;
     private HeadquartersState hqState;
+    private int roundNum;
 
     private Builder(MessageType messageType) {
       this.messageType = messageType;
@@ -50,8 +54,13 @@ public class Message {
       return this;
     }
 
+    public Builder roundNum(int roundNum) {
+      this.roundNum = roundNum;
+      return this;
+    }
+
     public Message build() {
-      return new Message(messageType, recipient, loc, hqState);
+      return new Message(messageType, recipient, loc, hqState, roundNum);
     }
   }
 
@@ -68,7 +77,8 @@ public class Message {
     Message other = (Message) o;
     return this.messageType == other.messageType &&
       this.recipient == other.recipient &&
-      this.loc.equals(other.loc) && this.hqState == other.hqState;
+      this.loc.equals(other.loc) && this.hqState == other.hqState &&
+      this.roundNum == other.roundNum;
   }
 
   @Override
@@ -85,6 +95,7 @@ public class Message {
     if (this.hqState != null) {
       result = 31 * result + this.hqState.hashCode();
     }
+    result = 31 * result + this.roundNum;
 
     return result;
   }
@@ -26,5 +26,8 @@ public enum MessageType {
   NEUTRAL_ISLAND_LOC,
 
   // ENEMY_ISLAND_LOC messages store a MapLocation of one of the cells in the sky-island owned by the enemy
-  ENEMY_ISLAND_LOC;
+  ENEMY_ISLAND_LOC,
+
+  // ENEMY_HQ_LOC messages store a MapLocation of an enemy headquarters
+  ENEMY_HQ_LOC;
 }
@@ -0,0 +1,138 @@
+package aloha.communication;
+
+import battlecode.common.*;
+import aloha.communication.basic.*;
+
+// Outbox is a bounded, priority-ordered queue of location messages that could not be sent yet, e.g. because
+//  the robot was out of range of an HQ, amplifier or sky-island. Messages are stored as int encodings in a
+//  fixed-capacity array, and are flushed most important first within a bytecode budget supplied by the caller.
+public class Outbox {
+  // REGION_ENCODING_LENGTH is the number of low coordinate bits ignored when comparing regions. Messages of the same
+  //  type and recipient in the same region (a 4x4 block of tiles) are coalesced into one.
+  private static final int REGION_ENCODING_LENGTH = 2;
+
+  // RECIPIENT_SHIFT and ROUND_STAMP_SHIFT are the positions of the recipient and round stamp bits in an entry.
+  private static final int RECIPIENT_SHIFT = Encoding.MAPLOCATION_ENCODING_LENGTH + Encoding.MESSAGE_TYPE_ENCODING_LENGTH;
+  private static final int ROUND_STAMP_SHIFT = RECIPIENT_SHIFT + Encoding.ENTITY_ENCODING_LENGTH;
+
+  // entries holds the queued messages in the format
+  //    <round stamp bits> | <recipient bits> | <location bits> | <message type bits>
+  //  ordered from highest to lowest priority. Only the first size entries are valid. The round stamp keeps the
+  //  round a timestamped message was observed in, so it doesn't look fresher for having waited in the outbox.
+  private final int[] entries;
+  private int size = 0;
+
+  public Outbox(int capacity) {
+    this.entries = new int[capacity];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  // add queues the given location message. A queued message for the same location and recipient is replaced by it,
+  //  and it is dropped if a message of the same type and recipient is already queued for the same region, or if the
+  //  outbox is full of more important messages.
+  public void add(Message message) {
+    int entry = (message.roundNum << ROUND_STAMP_SHIFT)
+      | (Encoding.of(message.recipient) << RECIPIENT_SHIFT)
+      | Encoding.ofLocationMessage(message);
+    int entryMask = (1 << ROUND_STAMP_SHIFT) - 1;
+    int regionMask = entryMask & (~(((1 << REGION_ENCODING_LENGTH) - 1) * ((1 << Encoding.COORDINATE_ENCODING_LENGTH) + 1)) << Encoding.MESSAGE_TYPE_ENCODING_LENGTH);
+    int locationMask = entryMask & ~Encoding.MESSAGE_TYPE_ENCODING_MASK;
+
+    for (int i = 0; i < size; i++) {
+      // Same recipient and location, the new message is more up to date
+      if ((entries[i] & locationMask) == (entry & locationMask)) {
+        remove(i);
+        break;
+      }
+
+      // Same recipient and message type in the same region, coalesce into the queued message
+      if ((entries[i] & regionMask) == (entry & regionMask)
+          && (entries[i] & Encoding.MESSAGE_TYPE_ENCODING_MASK) == (entry & Encoding.MESSAGE_TYPE_ENCODING_MASK)) {
+        return;
+      }
+    }
+
+    // Find the insertion point after all messages of the same or higher priority
+    int priority = priorityOf(entry);
+    int idx = size;
+    while (idx > 0 && priorityOf(entries[idx-1]) < priority) {
+      idx--;
+    }
+
+    // If the outbox is full, drop the least important message, unless that's the new one
+    if (size == entries.length) {
+      if (idx == size) {
+        return;
+      }
+      size--;
+    }
+
+    for (int i = size; i > idx; i--) {
+      entries[i] = entries[i-1];
+    }
+    entries[idx] = entry;
+    size++;
+  }
+
+  // flush sends queued messages, most important first, until the outbox is empty, a message can't be sent,
+  //  or the next send could exceed the given bytecode budget. Returns the number of messages sent.
+  public int flush(Communicator communicator, int bytecodeBudget, RobotController rc) throws GameActionException {
+    // If we can't communicate at all, do nothing.
+    if (size == 0 || !rc.canWriteSharedArray(0, 0)) {
+      return 0;
+    }
+
+    int startBytecodes = Clock.getBytecodeNum();
+    int maxSendBytecodes = 0;
+    int numSent = 0;
+    while (size > 0) {
+      int sendStartBytecodes = Clock.getBytecodeNum();
+      if (sendStartBytecodes - startBytecodes + maxSendBytecodes > bytecodeBudget) {
+        break;
+      }
+
+      int entry = entries[0];
+      int encoding = entry & ((1 << RECIPIENT_SHIFT) - 1);
+      Message message = Message.builder(Decoding.messageType(encoding & Encoding.MESSAGE_TYPE_ENCODING_MASK))
+        .recipient(Decoding.entity((entry >>> RECIPIENT_SHIFT) & Encoding.ENTITY_ENCODING_MASK))
+        .loc(Decoding.mapLocation(Decoding.locationMessageMapLocation(encoding)))
+        .roundNum(entry >>> ROUND_STAMP_SHIFT)
+        .build();
+
+      if (!communicator.sendMessage(message, rc)) {
+        break;
+      }
+      remove(0);
+      numSent++;
+
+      maxSendBytecodes = Math.max(maxSendBytecodes, Clock.getBytecodeNum() - sendStartBytecodes);
+    }
+
+    return numSent;
+  }
+
+  private void remove(int idx) {
+    size--;
+    for (int i = idx; i < size; i++) {
+      entries[i] = entries[i+1];
+    }
+  }
+
+  // priorityOf ranks an entry by its message type. Information about the enemy goes out first, since it goes
+  //  stale the fastest, and neutral sky-islands go out last, since they're only useful to robots holding an anchor.
+  private static int priorityOf(int entry) {
+    switch(Decoding.messageType(entry & Encoding.MESSAGE_TYPE_ENCODING_MASK)) {
+      case ENEMY_LOC:             return 4;
+      case ENEMY_HQ_LOC:          return 3;
+      case ENEMY_ISLAND_LOC:      return 3;
+      case AD_WELL_LOC:           return 2;
+      case MN_WELL_LOC:           return 2;
+      case EX_WELL_LOC:           return 2;
+      case FRIENDLY_ISLAND_LOC:   return 1;
+      default:                    return 0;
+    }
+  }
+}
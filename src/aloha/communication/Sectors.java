@@ -0,0 +1,157 @@
+package aloha.communication;
+
+import battlecode.common.*;
+import aloha.utils.Utils;
+
+// Sectors is a coarse, team-wide summary of the map, stored in the shared array (see SharedArrayLayout). The map is
+//  split into a SECTORS_PER_AXIS x SECTORS_PER_AXIS grid of sectors, and each sector has a bit for each of EXPLORED,
+//  ENEMY, WELL and ISLAND. Bits are only ever set, never cleared.
+//
+// Sectors are sized to the map, so a sector is between 4x4 and 12x12 tiles.
+public class Sectors {
+  // SECTORS_PER_AXIS is the number of sectors along the width and along the height of the map.
+  public static final int SECTORS_PER_AXIS = 5;
+  public static final int NUM_SECTORS = SECTORS_PER_AXIS * SECTORS_PER_AXIS;
+
+  // The bits of a sector. EXPLORED is set once a robot has been in the sector, and the others once a robot has
+  //  seen an enemy, a well or a sky-island in the sector.
+  public static final int EXPLORED = 1;
+  public static final int ENEMY = 2;
+  public static final int WELL = 4;
+  public static final int ISLAND = 8;
+
+  // SECTOR_ENCODING_LENGTH is the number of bits each sector takes up in a slot. A slot holds 4 sectors.
+  private static final int SECTOR_ENCODING_LENGTH = 4;
+  private static final int SECTOR_ENCODING_MASK = 15;
+
+  // sectorWidth and sectorHeight are the cached dimensions of a sector, in tiles.
+  private static int sectorWidth = 0;
+  private static int sectorHeight = 0;
+
+  // locallyExplored is a bitmask of the sectors this robot has been in. Robots can't always write to the shared
+  //  array, so this keeps an explorer from heading to a sector it has already been in, but couldn't mark.
+  private static int locallyExplored = 0;
+
+  public static int sectorOf(MapLocation loc, RobotController rc) {
+    initDimensions(rc);
+    return (loc.x / sectorWidth) * SECTORS_PER_AXIS + (loc.y / sectorHeight);
+  }
+
+  // centerOf returns the location at the center of the given sector.
+  public static MapLocation centerOf(int sector, RobotController rc) {
+    initDimensions(rc);
+    int x = Math.min((sector / SECTORS_PER_AXIS) * sectorWidth + sectorWidth / 2, rc.getMapWidth() - 1);
+    int y = Math.min((sector % SECTORS_PER_AXIS) * sectorHeight + sectorHeight / 2, rc.getMapHeight() - 1);
+    return new MapLocation(x, y);
+  }
+
+  // get returns the bits of the given sector.
+  public static int get(int sector, RobotController rc) throws GameActionException {
+    int bits = (SharedArray.read(indexOf(sector), rc) >> shiftOf(sector)) & SECTOR_ENCODING_MASK;
+    if ((locallyExplored & (1 << sector)) != 0) {
+      bits |= EXPLORED;
+    }
+
+    return bits;
+  }
+
+  // mark sets the given bits of the given sector. Returns false if the bits aren't set, and we can't write to the shared array.
+  public static boolean mark(int sector, int bits, RobotController rc) throws GameActionException {
+    if ((bits & EXPLORED) != 0) {
+      locallyExplored |= 1 << sector;
+    }
+
+    int idx = indexOf(sector);
+    int encoding = SharedArray.read(idx, rc);
+    int newEncoding = encoding | (bits << shiftOf(sector));
+    if (newEncoding == encoding) {
+      return true;
+    }
+
+    if (!rc.canWriteSharedArray(idx, newEncoding)) {
+      return false;
+    }
+
+    SharedArray.write(idx, newEncoding, rc);
+    return true;
+  }
+
+  // markExplored marks the sector this robot is in as explored.
+  public static void markExplored(RobotController rc) throws GameActionException {
+    mark(sectorOf(rc.getLocation(), rc), EXPLORED, rc);
+  }
+
+  // nearestUnexplored returns the unexplored sector whose center is closest to the given location, or -1 if every
+  //  sector is explored.
+  public static int nearestUnexplored(MapLocation loc, RobotController rc) throws GameActionException {
+    initDimensions(rc);
+
+    int nearestSector = -1;
+    int nearestDistance = 0;
+    for (int sector = 0; sector < NUM_SECTORS; sector++) {
+      if ((get(sector, rc) & EXPLORED) != 0) {
+        continue;
+      }
+
+      // Same as centerOf, without allocating a MapLocation for every sector
+      int x = Math.min((sector / SECTORS_PER_AXIS) * sectorWidth + sectorWidth / 2, rc.getMapWidth() - 1);
+      int y = Math.min((sector % SECTORS_PER_AXIS) * sectorHeight + sectorHeight / 2, rc.getMapHeight() - 1);
+      int distance = Utils.distanceSquared(loc, x, y);
+      if (nearestSector == -1 || distance < nearestDistance) {
+        nearestSector = sector;
+        nearestDistance = distance;
+      }
+    }
+
+    return nearestSector;
+  }
+
+  // nearestUnclaimed returns the unexplored sector no explorer has claimed (see FrontierClaims) whose center is closest
+  //  to the given location. If every unexplored sector is claimed, it returns the nearest unexplored sector, or -1 if
+  //  every sector is explored.
+  public static int nearestUnclaimed(MapLocation loc, RobotController rc) throws GameActionException {
+    initDimensions(rc);
+
+    int nearestSector = -1;
+    int nearestDistance = 0;
+    boolean isNearestClaimed = true;
+    for (int sector = 0; sector < NUM_SECTORS; sector++) {
+      if ((get(sector, rc) & EXPLORED) != 0) {
+        continue;
+      }
+
+      boolean isClaimed = FrontierClaims.isClaimed(sector, rc);
+      if (isClaimed && !isNearestClaimed) {
+        continue;
+      }
+
+      int x = Math.min((sector / SECTORS_PER_AXIS) * sectorWidth + sectorWidth / 2, rc.getMapWidth() - 1);
+      int y = Math.min((sector % SECTORS_PER_AXIS) * sectorHeight + sectorHeight / 2, rc.getMapHeight() - 1);
+      int distance = Utils.distanceSquared(loc, x, y);
+      if (nearestSector == -1 || (isNearestClaimed && !isClaimed) || distance < nearestDistance) {
+        nearestSector = sector;
+        nearestDistance = distance;
+        isNearestClaimed = isClaimed;
+      }
+    }
+
+    return nearestSector;
+  }
+
+  private static int indexOf(int sector) {
+    return SharedArrayLayout.SECTORS_FIRST_INDEX + sector / (16 / SECTOR_ENCODING_LENGTH);
+  }
+
+  private static int shiftOf(int sector) {
+    return (sector % (16 / SECTOR_ENCODING_LENGTH)) * SECTOR_ENCODING_LENGTH;
+  }
+
+  private static void initDimensions(RobotController rc) {
+    if (sectorWidth != 0) {
+      return;
+    }
+
+    sectorWidth = (rc.getMapWidth() + SECTORS_PER_AXIS - 1) / SECTORS_PER_AXIS;
+    sectorHeight = (rc.getMapHeight() + SECTORS_PER_AXIS - 1) / SECTORS_PER_AXIS;
+  }
+}
@@ -0,0 +1,43 @@
+package aloha.communication;
+
+import battlecode.common.*;
+
+// SharedArray is a round-scoped snapshot of the shared array. All slots are read once per turn, and every
+//  later read in the same turn is served from the snapshot. Writes go through to the shared array right away,
+//  while the caller's rc.canWriteSharedArray check still holds, and update the snapshot too. Deferring them to
+//  the end of the turn would drop them silently once the robot moved out of range, after the caller had
+//  already counted them as sent.
+public class SharedArray {
+  // snapshot is a copy of the shared array, plus any writes this robot made during the current turn.
+  private static final int[] snapshot = new int[GameConstants.SHARED_ARRAY_LENGTH];
+  // snapshotRound is the round the snapshot was read in.
+  private static int snapshotRound = -1;
+  // snapshotRc is the RobotController the snapshot was read with. In a match there is only ever one, but
+  //  tests drive several robots from the same JVM.
+  private static RobotController snapshotRc = null;
+
+  public static int read(int index, RobotController rc) throws GameActionException {
+    refresh(rc);
+    return snapshot[index];
+  }
+
+  // write sets the value of the given slot. The caller is expected to have checked rc.canWriteSharedArray.
+  public static void write(int index, int value, RobotController rc) throws GameActionException {
+    refresh(rc);
+    rc.writeSharedArray(index, value);
+    snapshot[index] = value;
+  }
+
+  private static void refresh(RobotController rc) throws GameActionException {
+    if (rc.getRoundNum() == snapshotRound && rc == snapshotRc) {
+      return;
+    }
+
+    for (int i = 0; i < GameConstants.SHARED_ARRAY_LENGTH; i++) {
+      snapshot[i] = rc.readSharedArray(i);
+    }
+
+    snapshotRound = rc.getRoundNum();
+    snapshotRc = rc;
+  }
+}
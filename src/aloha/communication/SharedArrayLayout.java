@@ -0,0 +1,98 @@
+package aloha.communication;
+
+import battlecode.common.*;
+
+// SharedArrayLayout describes how the indices of the shared array are split between the communicators.
+public class SharedArrayLayout {
+  /***
+  There are 64 indices in the shared array.
+
+  Indices 0-3 are for headquarter states.
+  Indices 4-9 are for messages intended for carrier robots.
+  Indices 10-14 are for messages intended for launcher robots.
+  Indices 15-16 are for the frontier claims of explorers.
+  Indices 17-22 are for messages intended for all robots, read by every robot in addition to its own range.
+  Index 23 is for the anchor demand of each headquarters.
+  Indices 24-25 are for the focus fire targets of launchers.
+  Indices 26-27 are for the census of carriers and amplifiers.
+  Indices 28-34 are for the sector summary of the map. The unused upper bits of index 34 are for the symmetry eliminations.
+  Indices 35-38 are for the heatmap of enemy activity per sector.
+  Indices 39-42 are for the locations of enemy headquarters.
+  Indices 43-48 are for the leases of well collection tiles, one well per index.
+  Indices 49-53 are for the owners of sky-islands.
+  Indices 54-55 are for the locations of sky-islands.
+  Indices 56-63 are for the well registry.
+  ***/
+
+  // HQ_STATE_FIRST_INDEX is the first index of the headquarter states, one per headquarters.
+  public static final int HQ_STATE_FIRST_INDEX = 0;
+  public static final int HQ_STATE_LENGTH = 4;
+
+  // CARRIERS_FIRST_INDEX is the first index of the ring buffer of messages intended for carrier robots. Every message
+  //  sent to carriers is a well location, which goes to the well registry first (see RegistryCommunicator), so this
+  //  ring only carries the wells that don't fit in a full registry, one slot each: 5 of them behind the write counter.
+  public static final int CARRIERS_FIRST_INDEX = 4;
+  public static final int CARRIERS_LENGTH = 6;
+
+  // LAUNCHERS_FIRST_INDEX is the first index of the ring buffer of messages intended for launcher robots. Like the
+  //  carrier ring, it only carries the wells that don't fit in a full registry, and it's one slot shorter: launchers
+  //  only use wells to know where to stand guard, and each carrier only tells them about the first well it collects
+  //  at. Enemy sightings, the only timestamped messages, go to the broadcast ring instead.
+  //  Amplifiers don't have a range of their own, since no robot sends messages to amplifiers only.
+  public static final int LAUNCHERS_FIRST_INDEX = 10;
+  public static final int LAUNCHERS_LENGTH = 5;
+
+  // FRONTIER_CLAIMS_FIRST_INDEX is the first index of the frontier claims, with 16 sectors per index (see FrontierClaims).
+  public static final int FRONTIER_CLAIMS_FIRST_INDEX = 15;
+  public static final int FRONTIER_CLAIMS_LENGTH = 2;
+
+  // BROADCAST_FIRST_INDEX is the first index of the ring buffer of messages intended for all robots. Its 5 slots behind
+  //  the write counter hold the 2 latest enemy sightings (2 slots each) and one more message. Every robot reads the
+  //  ring every turn, and the headquarters and launchers each report at most one sighting every few rounds, so
+  //  a sighting is only overwritten unread when more than 2 come in within a round, and then the newest ones are kept.
+  public static final int BROADCAST_FIRST_INDEX = 17;
+  public static final int BROADCAST_LENGTH = 6;
+
+  // ANCHOR_DEMAND_INDEX is the index of the anchor demand counters, one per headquarters (see AnchorDemand).
+  public static final int ANCHOR_DEMAND_INDEX = 23;
+
+  // FOCUS_TARGETS_FIRST_INDEX is the first index of the focus fire targets, one target per index (see FocusTargets).
+  public static final int FOCUS_TARGETS_FIRST_INDEX = 24;
+  public static final int FOCUS_TARGETS_LENGTH = 2;
+
+  // CENSUS_FIRST_INDEX is the first index of the census, one per counted robot type (see Census).
+  public static final int CENSUS_FIRST_INDEX = 26;
+  public static final int CENSUS_LENGTH = 2;
+
+  // SECTORS_FIRST_INDEX is the first index of the sector summary, with 4 sectors per index (see Sectors).
+  public static final int SECTORS_FIRST_INDEX = 28;
+  public static final int SECTORS_LENGTH = 7;
+
+  // SYMMETRY_INDEX is the index of the symmetry eliminations, which take the upper bits of the last sector index (see Symmetry).
+  public static final int SYMMETRY_INDEX = 34;
+
+  // HEAT_FIRST_INDEX is the first index of the heatmap, with 8 sectors per index (see Heatmap).
+  public static final int HEAT_FIRST_INDEX = 35;
+  public static final int HEAT_LENGTH = 4;
+
+  // ENEMY_HQ_FIRST_INDEX is the first index of the enemy headquarter locations, one per headquarters.
+  public static final int ENEMY_HQ_FIRST_INDEX = 39;
+  public static final int ENEMY_HQ_LENGTH = GameConstants.MAX_STARTING_HEADQUARTERS;
+
+  // LEASES_FIRST_INDEX is the first index of the leases of well collection tiles, one well per index (see Leases).
+  public static final int LEASES_FIRST_INDEX = 43;
+  public static final int LEASES_LENGTH = 6;
+
+  // ISLAND_OWNERS_FIRST_INDEX is the first index of the owners of sky-islands, with 8 islands per index (see Islands).
+  public static final int ISLAND_OWNERS_FIRST_INDEX = 49;
+  public static final int ISLAND_OWNERS_LENGTH = (GameConstants.MAX_NUMBER_ISLANDS + 7) / 8;
+
+  // ISLAND_LOCATIONS_FIRST_INDEX is the first index of the best-effort locations of sky-islands, one island per index (see Islands).
+  public static final int ISLAND_LOCATIONS_FIRST_INDEX = 54;
+  public static final int ISLAND_LOCATIONS_LENGTH = 2;
+
+  // REGISTRY_FIRST_INDEX is the first index of the hash-slotted well registry. Leases refer to a well by its slot in
+  //  3 bits, so the registry can't have more than 8 slots.
+  public static final int REGISTRY_FIRST_INDEX = 56;
+  public static final int REGISTRY_LENGTH = 8;
+}
@@ -0,0 +1,256 @@
+package aloha.communication;
+
+import battlecode.common.*;
+import aloha.communication.basic.*;
+import static aloha.RobotPlayer.END_OF_TURN_BYTECODES;
+
+// Symmetry infers the symmetry of the map. Every map is symmetric under one of ROTATIONAL, HORIZONTAL or VERTICAL
+//  symmetry, so once it's known, every robot can compute the locations of the enemy headquarters and wells from our
+//  own, without exploring.
+//
+// Robots compare what they sense against the mirrored location under each symmetry that's still possible, and
+//  eliminate the symmetries that don't match: a headquarters, well or sky-island whose mirrored location can be
+//  sensed but has no counterpart there, or a tile whose passability differs from its mirrored tile. Eliminations are
+//  shared as one bit per symmetry in the unused upper bits of the last index of the sector summary (see
+//  SharedArrayLayout). Like the sector bits, they are only ever set, never cleared.
+public class Symmetry {
+  // The candidate symmetries of a map:
+  //  ROTATIONAL maps (x, y) to (width-1-x, height-1-y)
+  //  HORIZONTAL maps (x, y) to (width-1-x, y), reflecting the map left to right
+  //  VERTICAL   maps (x, y) to (x, height-1-y), reflecting the map top to bottom
+  public static final int ROTATIONAL = 0;
+  public static final int HORIZONTAL = 1;
+  public static final int VERTICAL = 2;
+  public static final int NUM_SYMMETRIES = 3;
+
+  // ALL_SYMMETRIES is a bitmask with the bit of every symmetry set.
+  private static final int ALL_SYMMETRIES = 7;
+  // SYMMETRY_SHIFT is the shift of the elimination bits within SharedArrayLayout.SYMMETRY_INDEX.
+  private static final int SYMMETRY_SHIFT = 16 - NUM_SYMMETRIES;
+
+  // eliminated is a bitmask of the symmetries this robot has eliminated, or heard were eliminated. Robots can't always
+  //  write to the shared array, so this keeps what we learned until we can share it.
+  private static int eliminated = 0;
+
+  // possible returns a bitmask of the symmetries that haven't been eliminated.
+  public static int possible(RobotController rc) throws GameActionException {
+    eliminated |= (SharedArray.read(SharedArrayLayout.SYMMETRY_INDEX, rc) >> SYMMETRY_SHIFT) & ALL_SYMMETRIES;
+    return ALL_SYMMETRIES & ~eliminated;
+  }
+
+  // known returns the symmetry of the map, or -1 if more than one symmetry is still possible.
+  public static int known(RobotController rc) throws GameActionException {
+    int possible = possible(rc);
+    if (Integer.bitCount(possible) != 1) {
+      return -1;
+    }
+
+    return Integer.numberOfTrailingZeros(possible);
+  }
+
+  // mirror returns the location the given location maps to under the given symmetry.
+  public static MapLocation mirror(MapLocation loc, int symmetry, RobotController rc) {
+    switch(symmetry) {
+      case ROTATIONAL:  return new MapLocation(rc.getMapWidth()-1-loc.x, rc.getMapHeight()-1-loc.y);
+      case HORIZONTAL:  return new MapLocation(rc.getMapWidth()-1-loc.x, loc.y);
+      case VERTICAL:    return new MapLocation(loc.x, rc.getMapHeight()-1-loc.y);
+      default: throw new RuntimeException("should not be here");
+    }
+  }
+
+  // mirrorOf returns the location the given location maps to under the map's symmetry, or null if the symmetry
+  //  isn't known yet. Mirroring one of our headquarters or wells gives the location of an enemy headquarters or well.
+  public static MapLocation mirrorOf(MapLocation loc, RobotController rc) throws GameActionException {
+    int symmetry = known(rc);
+    if (symmetry == -1) {
+      return null;
+    }
+
+    return mirror(loc, symmetry, rc);
+  }
+
+  // predictEnemyHQ returns the predicted enemy headquarters closest to the given location, or null if the symmetry
+  //  isn't known yet.
+  public static MapLocation predictEnemyHQ(MapLocation loc, RobotController rc) throws GameActionException {
+    int symmetry = known(rc);
+    if (symmetry == -1) {
+      return null;
+    }
+
+    MapLocation closestEnemyHQ = null;
+    for (int i = 0; i < SharedArrayLayout.HQ_STATE_LENGTH; i++) {
+      int encoding = SharedArray.read(SharedArrayLayout.HQ_STATE_FIRST_INDEX + i, rc);
+      if (encoding == 0) {
+        continue;
+      }
+
+      MapLocation enemyHQ = mirror(Decoding.mapLocation(Decoding.hqStateMessageMapLocation(encoding)), symmetry, rc);
+      if (closestEnemyHQ == null || loc.distanceSquaredTo(enemyHQ) < loc.distanceSquaredTo(closestEnemyHQ)) {
+        closestEnemyHQ = enemyHQ;
+      }
+    }
+
+    return closestEnemyHQ;
+  }
+
+  // eliminate eliminates the given symmetry, e.g. because an enemy headquarters predicted from it isn't there, and
+  //  shares it if we can write to the shared array.
+  public static void eliminate(int symmetry, RobotController rc) throws GameActionException {
+    eliminated |= 1 << symmetry;
+    share(rc);
+  }
+
+  // update compares what this robot senses against the symmetries that are still possible, as long as it has more
+  //  than END_OF_TURN_BYTECODES left, and shares what it eliminated. It should be called at the end of the robot's turn.
+  public static void update(RobotController rc) throws GameActionException {
+    if (Integer.bitCount(possible(rc)) > 1 && Clock.getBytecodesLeft() > END_OF_TURN_BYTECODES) {
+      compareHeadquarters(rc);
+    }
+    if (Integer.bitCount(possible(rc)) > 1 && Clock.getBytecodesLeft() > END_OF_TURN_BYTECODES) {
+      compareWells(rc);
+    }
+    if (Integer.bitCount(possible(rc)) > 1 && Clock.getBytecodesLeft() > END_OF_TURN_BYTECODES) {
+      compareIslands(rc);
+    }
+    if (Integer.bitCount(possible(rc)) > 1 && Clock.getBytecodesLeft() > END_OF_TURN_BYTECODES) {
+      comparePassability(rc);
+    }
+
+    share(rc);
+  }
+
+  // compareHeadquarters eliminates the symmetries that mirror one of our headquarters onto one of ours, or onto a
+  //  location we can sense without an enemy headquarters, and the symmetries that don't mirror a reported enemy
+  //  headquarters onto one of ours.
+  private static void compareHeadquarters(RobotController rc) throws GameActionException {
+    for (int i = 0; i < SharedArrayLayout.HQ_STATE_LENGTH; i++) {
+      int encoding = SharedArray.read(SharedArrayLayout.HQ_STATE_FIRST_INDEX + i, rc);
+      if (encoding == 0) {
+        continue;
+      }
+
+      MapLocation hq = Decoding.mapLocation(Decoding.hqStateMessageMapLocation(encoding));
+      for (int symmetry = 0; symmetry < NUM_SYMMETRIES; symmetry++) {
+        if ((eliminated & (1 << symmetry)) != 0) {
+          continue;
+        }
+
+        MapLocation enemyHQ = mirror(hq, symmetry, rc);
+        if (isOurHQ(enemyHQ, rc)) {
+          eliminated |= 1 << symmetry;
+          continue;
+        }
+
+        if (rc.canSenseLocation(enemyHQ)) {
+          RobotInfo robot = rc.senseRobotAtLocation(enemyHQ);
+          if (robot == null || robot.type != RobotType.HEADQUARTERS || robot.team == rc.getTeam()) {
+            eliminated |= 1 << symmetry;
+          }
+        }
+      }
+    }
+
+    for (int i = 0; i < SharedArrayLayout.ENEMY_HQ_LENGTH; i++) {
+      int encoding = SharedArray.read(SharedArrayLayout.ENEMY_HQ_FIRST_INDEX + i, rc);
+
+      // The table is filled from the front, so the first empty slot ends it
+      if (encoding == 0) {
+        break;
+      }
+
+      MapLocation enemyHQ = Decoding.mapLocation(Decoding.locationMessageMapLocation(encoding));
+      for (int symmetry = 0; symmetry < NUM_SYMMETRIES; symmetry++) {
+        if ((eliminated & (1 << symmetry)) == 0 && !isOurHQ(mirror(enemyHQ, symmetry, rc), rc)) {
+          eliminated |= 1 << symmetry;
+        }
+      }
+    }
+  }
+
+  // compareWells eliminates the symmetries that mirror a well in sight onto a location we can sense without a well.
+  //  Only the presence of a well is compared, since either team can upgrade a well into an elixir well.
+  private static void compareWells(RobotController rc) throws GameActionException {
+    for (WellInfo well : rc.senseNearbyWells()) {
+      for (int symmetry = 0; symmetry < NUM_SYMMETRIES; symmetry++) {
+        if ((eliminated & (1 << symmetry)) != 0) {
+          continue;
+        }
+
+        MapLocation mirroredWell = mirror(well.getMapLocation(), symmetry, rc);
+        if (rc.canSenseLocation(mirroredWell) && rc.senseWell(mirroredWell) == null) {
+          eliminated |= 1 << symmetry;
+        }
+      }
+    }
+  }
+
+  // compareIslands eliminates the symmetries that mirror a sky-island tile in sight onto a location we can sense
+  //  without a sky-island. One tile is compared per sky-island.
+  private static void compareIslands(RobotController rc) throws GameActionException {
+    for (int id : rc.senseNearbyIslands()) {
+      MapLocation[] islandLocs = rc.senseNearbyIslandLocations(id);
+      if (islandLocs.length == 0) {
+        continue;
+      }
+
+      for (int symmetry = 0; symmetry < NUM_SYMMETRIES; symmetry++) {
+        if ((eliminated & (1 << symmetry)) != 0) {
+          continue;
+        }
+
+        MapLocation mirroredLoc = mirror(islandLocs[0], symmetry, rc);
+        if (rc.canSenseLocation(mirroredLoc) && rc.senseIsland(mirroredLoc) == -1) {
+          eliminated |= 1 << symmetry;
+        }
+      }
+    }
+  }
+
+  // comparePassability eliminates the symmetries that mirror one of the tiles around us onto a tile we can sense with
+  //  a different passability. Mirrored tiles are only in sight near the center lines of the map, which is where
+  //  explorers pass through anyway.
+  private static void comparePassability(RobotController rc) throws GameActionException {
+    MapLocation myLocation = rc.getLocation();
+    for (int symmetry = 0; symmetry < NUM_SYMMETRIES; symmetry++) {
+      if ((eliminated & (1 << symmetry)) != 0 || !rc.canSenseLocation(mirror(myLocation, symmetry, rc))) {
+        continue;
+      }
+
+      for (Direction direction : Direction.values()) {
+        MapLocation loc = myLocation.add(direction);
+        MapLocation mirroredLoc = mirror(loc, symmetry, rc);
+        if (!rc.canSenseLocation(loc) || !rc.canSenseLocation(mirroredLoc)) {
+          continue;
+        }
+
+        if (rc.sensePassability(loc) != rc.sensePassability(mirroredLoc)) {
+          eliminated |= 1 << symmetry;
+          break;
+        }
+      }
+    }
+  }
+
+  // share writes the symmetries we eliminated to the shared array, if we can write to it.
+  private static void share(RobotController rc) throws GameActionException {
+    int encoding = SharedArray.read(SharedArrayLayout.SYMMETRY_INDEX, rc);
+    int newEncoding = encoding | (eliminated << SYMMETRY_SHIFT);
+    if (newEncoding == encoding || !rc.canWriteSharedArray(SharedArrayLayout.SYMMETRY_INDEX, newEncoding)) {
+      return;
+    }
+
+    SharedArray.write(SharedArrayLayout.SYMMETRY_INDEX, newEncoding, rc);
+  }
+
+  private static boolean isOurHQ(MapLocation loc, RobotController rc) throws GameActionException {
+    int locEncoding = Encoding.of(loc);
+    for (int i = 0; i < SharedArrayLayout.HQ_STATE_LENGTH; i++) {
+      int encoding = SharedArray.read(SharedArrayLayout.HQ_STATE_FIRST_INDEX + i, rc);
+      if (encoding != 0 && Decoding.hqStateMessageMapLocation(encoding) == locEncoding) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+}
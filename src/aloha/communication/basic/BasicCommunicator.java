@@ -8,31 +8,86 @@ import aloha.utils.*;
 
 public class BasicCommunicator implements Communicator {
   /***
-  There are 64 indices in the shared array.
+  The BasicCommunicator uses the headquarter states, the robot-specific ranges and the
+    broadcast range of the shared array, as well as the enemy headquarters table (see SharedArrayLayout). Every robot receives the messages
+    in its own range as well as the messages in the broadcast range, so a message intended for
+    all robots takes a single write.
 
-  Indices 0-3 are for headquarter states.
-  Indices 4-23 are for messages intended for carrier robots.
-  Indices 24-43 are for messages intended for launcher robots.
-  Indices 44-63 are for messages intended for amplifier robots.
+  Timestamped messages (see Encoding.isTimestamped) take up two consecutive slots of a range: the
+    message itself, followed by the round stamp of when it was observed. Receivers drop timestamped
+    messages older than TIMESTAMPED_MESSAGE_TTL rounds before they are decoded.
 
-  The first index in each of the robot-specific ranges (e.g. 4, 24, 44 etc.) holds
+  The first index in each of the ranges (e.g. 4, 10 and 17) holds
     a counter to the total number of writes made to this range ever made. If the
     counter overlows (2^16), it returns to 0.
+
+  All reads go through the SharedArray snapshot, so each slot is read from the shared array at most
+    once per turn, no matter how many messages are received. Writes go through to the shared array
+    right away, so a slot written again in the same turn costs another write.
   ***/
 
+  // COMPACTED_RANGES are the ranges compacted by the headquarters, split between them by headquarter state index.
+  private static final Entity[] COMPACTED_RANGES = new Entity[]{Entity.CARRIERS, Entity.LAUNCHERS, Entity.ALL_ROBOTS};
+
+  // TIMESTAMPED_MESSAGE_TTL is the number of rounds after which a timestamped message is too old to be received.
+  public static final int TIMESTAMPED_MESSAGE_TTL = 20;
+
   // hqIndex is a cached index into the shared array of the headquarters this robot belongs to.
   private static int hqIndex = -1;
 
   // numReceivedMessages is a cached number of total messages this robot received from the shared array.
   private static int numReceivedMessages = 0;
-
-  // receivedRobotMessages is a cached list of all messages received in the robot's channel during this round.
-  private static List<Message> receivedRobotMessages = null;
-  // receivedRobotMessagesRound is the cached round number when receivedMessages was received.
+  // numReceivedBroadcastMessages is a cached number of total messages this robot received from the broadcast range.
+  private static int numReceivedBroadcastMessages = 0;
+
+  // receivedRobotEncodings is a per-round index of the raw encodings of all messages received in the robot's channel,
+  //  bucketed by the message type encoding (see Encoding.of(MessageType)). Each bucket holds its encodings
+  //  in chronological order, and only the first numReceivedRobotEncodings[type] entries of a bucket are valid.
+  //  The round stamp of a timestamped message is folded into its encoding, in the format
+  //    <round stamp bits> | <location bits> | <message type bits>
+  private static final int[][] receivedRobotEncodings = new int[Encoding.MESSAGE_TYPE_ENCODING_MASK+1][GameConstants.SHARED_ARRAY_LENGTH];
+  private static final int[] numReceivedRobotEncodings = new int[Encoding.MESSAGE_TYPE_ENCODING_MASK+1];
+  // liveEncodings is a scratch buffer for the messages kept by compactRange.
+  private static final int[] liveEncodings = new int[GameConstants.SHARED_ARRAY_LENGTH];
+  // receivedRobotMessagesRound is the cached round number when receivedRobotEncodings was received.
   private static int receivedRobotMessagesRound = -1;
 
+  // If enabled, print how many messages in the robot's channel were lost to ring buffer wrap-around, and how many
+  //  were duplicates of a message received in the same round. This is useful for sizing the ranges of the
+  //  shared array. Since this is a compile-time constant, the telemetry costs nothing when disabled.
+  private static final boolean printMessageLoss = false;
+  // totalLostMessages and totalDuplicateMessages are the number of lost and duplicate messages over the robot's lifetime.
+  private static int totalLostMessages = 0;
+  private static int totalDuplicateMessages = 0;
+
+  // If enabled, print the bytecodes used by every send and receive call, along with the number of messages sent or
+  //  received and the robot's running totals. Every robot has its own static state, so the totals are per robot,
+  //  and the robot's type is printed with them. This is useful for comparing communicator implementations and for
+  //  finding which robot types spend too much of their turn communicating. Since this is a compile-time constant,
+  //  the accounting costs nothing when disabled.
+  private static final boolean printCommunicationCost = false;
+  // numSendCalls, numSentMessages and totalSendBytecodes are the robot's lifetime send totals.
+  private static int numSendCalls = 0;
+  private static int numSentMessages = 0;
+  private static int totalSendBytecodes = 0;
+  // numReceiveCalls, totalReceivedMessages and totalReceiveBytecodes are the robot's lifetime receive totals.
+  private static int numReceiveCalls = 0;
+  private static int totalReceivedMessages = 0;
+  private static int totalReceiveBytecodes = 0;
+
+  // reset clears all cached state. In a match every robot gets its own copy of the static state, so this is
+  //  only needed by tests that drive several robots from the same JVM.
+  static void reset() {
+    hqIndex = -1;
+    numReceivedMessages = 0;
+    numReceivedBroadcastMessages = 0;
+    receivedRobotMessagesRound = -1;
+  }
+
   @Override
   public boolean sendMessage(Message message, RobotController rc) throws GameActionException {
+    int startBytecodes = printCommunicationCost ? Clock.getBytecodeNum() : 0;
+
     boolean success;
     switch(message.messageType) {
       case HQ_STATE:            success = sendHQStateMessage(message, rc);  break;
@@ -43,6 +98,7 @@ public class BasicCommunicator implements Communicator {
       case FRIENDLY_ISLAND_LOC: success = sendLocationMessage(message, rc); break;
       case ENEMY_ISLAND_LOC:    success = sendLocationMessage(message, rc); break;
       case NEUTRAL_ISLAND_LOC:  success = sendLocationMessage(message, rc); break;
+      case ENEMY_HQ_LOC:        success = sendEnemyHQMessage(message, rc);  break;
       default:          throw new RuntimeException("should not be here");
     }
 
@@ -50,14 +106,135 @@ public class BasicCommunicator implements Communicator {
       Log.println("Successfully sent " + message.messageType + " loc " + message.loc);
     }
 
+    if (printCommunicationCost) {
+      int bytecodes = Clock.getBytecodeNum() - startBytecodes;
+      numSendCalls++;
+      numSentMessages += success ? 1 : 0;
+      totalSendBytecodes += bytecodes;
+      Log.println(rc.getType() + " send " + message.messageType + " cost $" + bytecodes + " sent $" + (success ? 1 : 0)
+        + " total calls $" + numSendCalls + " total sent $" + numSentMessages + " total cost $" + totalSendBytecodes);
+    }
+
     return success;
   }
 
   @Override
   public List<Message> receiveMessages(MessageType messageType, RobotController rc) throws GameActionException {
+    int startBytecodes = printCommunicationCost ? Clock.getBytecodeNum() : 0;
+
+    List<Message> messages;
+    switch(messageType) {
+      case HQ_STATE:              messages = receiveHQStateMessages(rc);                break;
+      case ENEMY_HQ_LOC:          messages = receiveEnemyHQMessages(rc);                break;
+      default:                    messages = receiveRobotMessages(messageType, rc);     break;
+    }
+
+    if (printCommunicationCost) {
+      printReceiveCost("receive", messageType, messages.size(), Clock.getBytecodeNum() - startBytecodes, rc);
+    }
+
+    return messages;
+  }
+
+  @Override
+  public int receiveInto(MessageType messageType, int[] out, RobotController rc) throws GameActionException {
+    int startBytecodes = printCommunicationCost ? Clock.getBytecodeNum() : 0;
+
+    int numMessages;
     switch(messageType) {
-      case HQ_STATE:              return receiveHQStateMessages(rc);
-      default:                    return receiveRobotMessages(messageType, rc);
+      case HQ_STATE:              numMessages = receiveHQStateMessageInto(out, rc);                break;
+      case ENEMY_HQ_LOC:          numMessages = receiveEnemyHQMessagesInto(out, rc);               break;
+      default:                    numMessages = receiveRobotMessagesInto(messageType, out, rc);    break;
+    }
+
+    if (printCommunicationCost) {
+      printReceiveCost("receiveInto", messageType, numMessages, Clock.getBytecodeNum() - startBytecodes, rc);
+    }
+
+    return numMessages;
+  }
+
+  // printReceiveCost adds a receive call to the robot's receive totals and prints it (see printCommunicationCost).
+  private void printReceiveCost(String call, MessageType messageType, int numMessages, int bytecodes, RobotController rc) {
+    numReceiveCalls++;
+    totalReceivedMessages += numMessages;
+    totalReceiveBytecodes += bytecodes;
+    Log.println(rc.getType() + " " + call + " " + messageType + " cost $" + bytecodes + " received $" + numMessages
+      + " total calls $" + numReceiveCalls + " total received $" + totalReceivedMessages + " total cost $" + totalReceiveBytecodes);
+  }
+
+  @Override
+  public void compact(RobotController rc) throws GameActionException {
+    // Only headquarters compact, since they can always write to the shared array. They also take their turns
+    //  before any other robot, so every message they remove is removed before the round's receivers read it.
+    if (rc.getType() != RobotType.HEADQUARTERS || hqIndex == -1) {
+      return;
+    }
+
+    int numHQs = 0;
+    for (int i = 0; i < SharedArrayLayout.HQ_STATE_LENGTH; i++) {
+      if (SharedArray.read(SharedArrayLayout.HQ_STATE_FIRST_INDEX + i, rc) != 0) {
+        numHQs++;
+      }
+    }
+
+    for (int i = hqIndex; i < COMPACTED_RANGES.length; i += numHQs) {
+      compactRange(COMPACTED_RANGES[i], rc);
+    }
+  }
+
+  // compactRange clears the messages in the given entity's range that receivers would have no use for: copies of a
+  //  message written earlier in the range, timestamped messages that are too old to be received, and round stamps
+  //  whose message was already overwritten. Cleared slots are set to 0, which receivers skip without decoding.
+  //
+  // Live messages are not moved. Every receiver keeps its own count of received messages, so moving a message
+  //  to an earlier slot would hide it from some receivers, and moving it to a later slot would deliver it twice.
+  private void compactRange(Entity entity, RobotController rc) throws GameActionException {
+    int firstIndex = getFirstIndexOfRange(entity);
+    int lengthOfRange = getLengthOfRange(entity);
+    int numWrites = SharedArray.read(firstIndex, rc);
+
+    int numLiveEncodings = 0;
+    for (int count = Math.max(0, numWrites-lengthOfRange); count < numWrites; count++) {
+      int targetIdx = firstIndex + (count % lengthOfRange) + 1;
+      int encoding = SharedArray.read(targetIdx, rc);
+      if (encoding == 0) {
+        continue;
+      }
+
+      // A round stamp on its own belongs to a message that was already overwritten
+      int messageTypeEncoding = encoding & Encoding.MESSAGE_TYPE_ENCODING_MASK;
+      if (messageTypeEncoding == Encoding.ROUND_STAMP_MESSAGE_TYPE_ENCODING) {
+        SharedArray.write(targetIdx, 0, rc);
+        continue;
+      }
+
+      // Timestamped messages are kept until they're too old, even if they're copies, since a copy is a newer sighting
+      if (Encoding.isTimestamped(Decoding.messageType(messageTypeEncoding))) {
+        count++;
+        int roundStampIdx = firstIndex + (count % lengthOfRange) + 1;
+        int roundNum = SharedArray.read(roundStampIdx, rc) >>> Encoding.MESSAGE_TYPE_ENCODING_LENGTH;
+        if (rc.getRoundNum() - roundNum > TIMESTAMPED_MESSAGE_TTL) {
+          SharedArray.write(targetIdx, 0, rc);
+          SharedArray.write(roundStampIdx, 0, rc);
+        }
+        continue;
+      }
+
+      // Keep the earliest copy of a message, so receivers that already read it don't read it again
+      boolean isCopy = false;
+      for (int i = numLiveEncodings; --i >= 0;) {
+        if (liveEncodings[i] == encoding) {
+          isCopy = true;
+          break;
+        }
+      }
+      if (isCopy) {
+        SharedArray.write(targetIdx, 0, rc);
+        continue;
+      }
+
+      liveEncodings[numLiveEncodings++] = encoding;
     }
   }
 
@@ -65,66 +242,157 @@ public class BasicCommunicator implements Communicator {
     // Receive all messages for this turn
     receiveAllRobotMessages(rc);
 
-    // Filter the received messages by the requested message type
-    List<Message> messages = new LinkedList<>();
-    for (Message message : messages) {
-      if (messageType == message.messageType) {
-        messages.add(message);
-      }
+    // Decode the received messages of the requested message type
+    int messageTypeEncoding = Encoding.of(messageType);
+    int[] encodings = receivedRobotEncodings[messageTypeEncoding];
+    int numEncodings = numReceivedRobotEncodings[messageTypeEncoding];
+    List<Message> messages = new ArrayList<>(numEncodings);
+    for (int i = 0; i < numEncodings; i++) {
+      messages.add(Decoding.locationMessage(encodings[i]));
     }
 
     return messages;
   }
 
+  private int receiveRobotMessagesInto(MessageType messageType, int[] out, RobotController rc) throws GameActionException {
+    // Receive all messages for this turn
+    receiveAllRobotMessages(rc);
+
+    // Copy the raw encodings of the requested message type into the caller's buffer, until it fills up
+    int messageTypeEncoding = Encoding.of(messageType);
+    int numMessages = Math.min(numReceivedRobotEncodings[messageTypeEncoding], out.length);
+    System.arraycopy(receivedRobotEncodings[messageTypeEncoding], 0, out, 0, numMessages);
+
+    return numMessages;
+  }
+
   private void receiveAllRobotMessages(RobotController rc) throws GameActionException {
     // If we've already received all messages for this round, do nothing.
     if (rc.getRoundNum() == receivedRobotMessagesRound) {
       return;
     }
 
+    // Messages are only indexed by their message type here; decoding is left to the caller.
+    for (int i = 0; i < numReceivedRobotEncodings.length; i++) {
+      numReceivedRobotEncodings[i] = 0;
+    }
+
+    // Receive the messages intended for this robot's type first, then the messages intended for all robots.
+    //  Headquarters have no range of their own, so they only receive broadcast messages.
+    Entity entity = Entity.of(rc.getType());
+    if (hasRange(entity)) {
+      numReceivedMessages = receiveRange(entity, numReceivedMessages, rc);
+    }
+    numReceivedBroadcastMessages = receiveRange(Entity.ALL_ROBOTS, numReceivedBroadcastMessages, rc);
+
+    receivedRobotMessagesRound = rc.getRoundNum();
+  }
+
+  // receiveRange indexes all messages written to the given entity's range since the given number of received
+  //  messages, and returns the new number of received messages.
+  private int receiveRange(Entity entity, int numReceived, RobotController rc) throws GameActionException {
     // Get the total number of writes ever made to the given recipient by getting the
     //  value at the first index of the recipient's range
-    int firstIndex = getFirstIndexOfRange(Entity.of(rc.getType()));
-    int lengthOfRange = getLengthOfRange(Entity.of(rc.getType()));
-    int numWrites = rc.readSharedArray(firstIndex);
-
-    receivedRobotMessages = new LinkedList<>();
+    int firstIndex = getFirstIndexOfRange(entity);
+    int lengthOfRange = getLengthOfRange(entity);
+    int numWrites = SharedArray.read(firstIndex, rc);
 
     // Receive all messages written since the latest message was received. Cap the number of
-    //  received messages to the length of the range, since there will be at most `length of range` new messages to receive. Read the
-    //  messages in reverse chronological order, but build the message list in chronological order.
-    for (int count = numWrites-1; count >= numReceivedMessages && count >= numWrites-lengthOfRange; count--) {
+    //  received messages to the length of the range, since there will be at most `length of range` new messages to receive.
+    int count = Math.max(numReceived, numWrites-lengthOfRange);
+    int numDuplicateMessages = 0;
+    for (; count < numWrites; count++) {
       int targetIdx = firstIndex + (count % lengthOfRange) + 1;
-      int encoding = rc.readSharedArray(targetIdx);
+      int encoding = SharedArray.read(targetIdx, rc);
 
       // Ignore empty messages
       if (encoding == 0) {
         continue;
       }
 
-      // Decode the message based on its message type. Assumes the message type is
-      //  always the right-most bits in the encoding.
-      Message message;
-      switch(Decoding.messageType(encoding & Encoding.MESSAGE_TYPE_ENCODING_MASK)) {
-        case AD_WELL_LOC:           message = Decoding.locationMessage(encoding); break;
-        case MN_WELL_LOC:           message = Decoding.locationMessage(encoding); break;
-        case EX_WELL_LOC:           message = Decoding.locationMessage(encoding); break;
-        case ENEMY_LOC:             message = Decoding.locationMessage(encoding); break;
-        case FRIENDLY_ISLAND_LOC:   message = Decoding.locationMessage(encoding); break;
-        case ENEMY_ISLAND_LOC:      message = Decoding.locationMessage(encoding); break;
-        case NEUTRAL_ISLAND_LOC:    message = Decoding.locationMessage(encoding); break;
-        default:          throw new RuntimeException("should not be here");
+      // Assumes the message type is always the right-most bits in the encoding.
+      int messageTypeEncoding = encoding & Encoding.MESSAGE_TYPE_ENCODING_MASK;
+
+      // Round stamps are received together with the message before them. A round stamp on its own belongs to a
+      //  message that was already overwritten.
+      if (messageTypeEncoding == Encoding.ROUND_STAMP_MESSAGE_TYPE_ENCODING) {
+        continue;
+      }
+
+      // The round stamp of a timestamped message is written in the same turn, right after the message, so it's
+      //  always within the range of messages to receive. Drop the message if it's too old.
+      if (Encoding.isTimestamped(Decoding.messageType(messageTypeEncoding))) {
+        count++;
+        int roundStampEncoding = SharedArray.read(firstIndex + (count % lengthOfRange) + 1, rc);
+        int roundNum = roundStampEncoding >>> Encoding.MESSAGE_TYPE_ENCODING_LENGTH;
+        if (rc.getRoundNum() - roundNum > TIMESTAMPED_MESSAGE_TTL) {
+          continue;
+        }
+
+        encoding |= roundNum << (Encoding.MAPLOCATION_ENCODING_LENGTH + Encoding.MESSAGE_TYPE_ENCODING_LENGTH);
       }
 
-      receivedRobotMessages.add(0, message);
+      if (printMessageLoss && isReceived(encoding)) {
+        numDuplicateMessages++;
+      }
+      receivedRobotEncodings[messageTypeEncoding][numReceivedRobotEncodings[messageTypeEncoding]++] = encoding;
+    }
+
+    // Messages written before this robot's first receive were never meant for it, so they don't count as lost.
+    if (printMessageLoss) {
+      int numLostMessages = receivedRobotMessagesRound == -1 ? 0 : Math.max(0, numWrites-lengthOfRange-numReceived);
+      totalLostMessages += numLostMessages;
+      totalDuplicateMessages += numDuplicateMessages;
+      Log.println(entity + " message loss lost $" + numLostMessages + " duplicates $" + numDuplicateMessages
+        + " written $" + (numWrites-numReceived) + " total lost $" + totalLostMessages + " total duplicates $" + totalDuplicateMessages);
     }
 
     // It's possible we haven't read as many received messages as was ever written, but
     //  that only happens when more than `length of range` messages were written to the range in the last turn.
     //  Those messages are effectively lost, so we count them here anyway to ensure that
     //  subsequent invocations of this function will be correct.
-    numReceivedMessages = numWrites;
-    receivedRobotMessagesRound = rc.getRoundNum();
+    return numWrites;
+  }
+
+  // isReceived returns true if the given encoding was already received during this round.
+  private boolean isReceived(int encoding) {
+    int messageTypeEncoding = encoding & Encoding.MESSAGE_TYPE_ENCODING_MASK;
+    int[] encodings = receivedRobotEncodings[messageTypeEncoding];
+    for (int i = numReceivedRobotEncodings[messageTypeEncoding]; --i >= 0;) {
+      if (encodings[i] == encoding) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  // sendEnemyHQMessage writes the given enemy headquarter's location to the first empty slot of the enemy headquarters
+  //  table, unless the location is already in the table. Any robot can send it.
+  private boolean sendEnemyHQMessage(Message message, RobotController rc) throws GameActionException {
+    int encoding = Encoding.ofLocationMessage(message);
+    for (int i = 0; i < SharedArrayLayout.ENEMY_HQ_LENGTH; i++) {
+      int idx = SharedArrayLayout.ENEMY_HQ_FIRST_INDEX + i;
+      int existingEncoding = SharedArray.read(idx, rc);
+
+      // Someone else already reported this enemy HQ
+      if (existingEncoding == encoding) {
+        return true;
+      }
+
+      if (existingEncoding == 0) {
+        // If we can't write to the shared array, return false
+        if (!rc.canWriteSharedArray(idx, encoding)) {
+          return false;
+        }
+
+        SharedArray.write(idx, encoding, rc);
+        return true;
+      }
+    }
+
+    // The table is full, which should not happen since there are at most as many enemy HQs as slots
+    return false;
   }
 
   // sendLocationMessage sends messages that only contain a messageType and location
@@ -132,23 +400,34 @@ public class BasicCommunicator implements Communicator {
     // Get the total number of writes ever made to the given recipient by getting the
     //  value at the first index of the recipient's range
     int firstIndex = getFirstIndexOfRange(message.recipient);
-    int lengthOfRange = getLengthOfRange(Entity.of(rc.getType()));
-    int numWrites = rc.readSharedArray(firstIndex);
+    int lengthOfRange = getLengthOfRange(message.recipient);
+    int numWrites = SharedArray.read(firstIndex, rc);
 
     // Use the total number of writes to point to one of the `length of range` available indices
     int targetIdx = firstIndex + (numWrites % lengthOfRange) + 1;
 
     // If we can't write to the shared array, return false
     int encoding = Encoding.ofLocationMessage(message);
+    int numSlots = Encoding.isTimestamped(message.messageType) ? 2 : 1;
     if (!rc.canWriteSharedArray(targetIdx, encoding)) {
       return false;
     }
-    if(!rc.canWriteSharedArray(firstIndex, numWrites+1)) {
+    if(!rc.canWriteSharedArray(firstIndex, numWrites+numSlots)) {
       return false;
     }
 
-    rc.writeSharedArray(targetIdx, encoding);
-    rc.writeSharedArray(firstIndex, numWrites+1);
+    SharedArray.write(targetIdx, encoding, rc);
+    numWrites++;
+
+    // Timestamped messages are followed by the round they were observed, or the current round if that's not known
+    if (Encoding.isTimestamped(message.messageType)) {
+      int roundStampIdx = firstIndex + (numWrites % lengthOfRange) + 1;
+      int roundNum = message.roundNum == 0 ? rc.getRoundNum() : message.roundNum;
+      SharedArray.write(roundStampIdx, Encoding.ofRoundStamp(roundNum), rc);
+      numWrites++;
+    }
+
+    SharedArray.write(firstIndex, numWrites, rc);
 
     return true;
   }
@@ -164,7 +443,7 @@ public class BasicCommunicator implements Communicator {
     // in the shared array. This assumes that the shared array is initialized to all 0's at the start of the game.
     if (hqIndex == -1) {
       for (int i = 0; i < 4; i++) {
-        if (rc.readSharedArray(i) == 0) {
+        if (SharedArray.read(i, rc) == 0) {
           hqIndex = i;
           break;
         }
@@ -182,30 +461,71 @@ public class BasicCommunicator implements Communicator {
       return false;
     }
 
-    rc.writeSharedArray(hqIndex, encoding);
+    SharedArray.write(hqIndex, encoding, rc);
     return true;
   }
 
   private int getFirstIndexOfRange(Entity entity) {
     switch(entity) {
-      case CARRIERS:            return 4;
-      case LAUNCHERS:           return 24;
-      case AMPLIFIERS:          return 44;
+      case ALL_ROBOTS:          return SharedArrayLayout.BROADCAST_FIRST_INDEX;
+      case CARRIERS:            return SharedArrayLayout.CARRIERS_FIRST_INDEX;
+      case LAUNCHERS:           return SharedArrayLayout.LAUNCHERS_FIRST_INDEX;
       default: throw new RuntimeException("should not be here");
     }
   }
 
+  // hasRange returns true if the given entity has a range of its own in the shared array.
+  private boolean hasRange(Entity entity) {
+    switch(entity) {
+      case CARRIERS:            return true;
+      case LAUNCHERS:           return true;
+      default:                  return false;
+    }
+  }
+
   // getLengthOfRange gets the length of the range for each entity, not
   //  including the first index (which contains count information)
   private int getLengthOfRange(Entity entity) {
     switch(entity) {
-      case CARRIERS:            return 19;
-      case LAUNCHERS:           return 19;
-      case AMPLIFIERS:          return 19;
+      case ALL_ROBOTS:          return SharedArrayLayout.BROADCAST_LENGTH-1;
+      case CARRIERS:            return SharedArrayLayout.CARRIERS_LENGTH-1;
+      case LAUNCHERS:           return SharedArrayLayout.LAUNCHERS_LENGTH-1;
       default: throw new RuntimeException("should not be here");
     }
   }
 
+  private List<Message> receiveEnemyHQMessages(RobotController rc) throws GameActionException {
+    List<Message> messages = new ArrayList<>(SharedArrayLayout.ENEMY_HQ_LENGTH);
+    for (int i = 0; i < SharedArrayLayout.ENEMY_HQ_LENGTH; i++) {
+      int encoding = SharedArray.read(SharedArrayLayout.ENEMY_HQ_FIRST_INDEX + i, rc);
+
+      // The table is filled from the front, so the first empty slot ends it
+      if (encoding == 0) {
+        break;
+      }
+
+      messages.add(Decoding.locationMessage(encoding));
+    }
+
+    return messages;
+  }
+
+  private int receiveEnemyHQMessagesInto(int[] out, RobotController rc) throws GameActionException {
+    int numMessages = 0;
+    for (int i = 0; i < SharedArrayLayout.ENEMY_HQ_LENGTH && numMessages < out.length; i++) {
+      int encoding = SharedArray.read(SharedArrayLayout.ENEMY_HQ_FIRST_INDEX + i, rc);
+
+      // The table is filled from the front, so the first empty slot ends it
+      if (encoding == 0) {
+        break;
+      }
+
+      out[numMessages++] = encoding;
+    }
+
+    return numMessages;
+  }
+
   private List<Message> receiveHQStateMessages(RobotController rc) throws GameActionException {
     // If we don't yet belong to an HQ, find the closest one
     if (hqIndex == -1) {
@@ -217,29 +537,48 @@ public class BasicCommunicator implements Communicator {
       }
     }
 
-    int encoding = rc.readSharedArray(hqIndex);
+    int encoding = SharedArray.read(hqIndex, rc);
     Message message = Decoding.hqStateMessage(encoding);
 
     return Arrays.asList(message);
   }
 
+  private int receiveHQStateMessageInto(int[] out, RobotController rc) throws GameActionException {
+    // If we don't yet belong to an HQ, find the closest one
+    if (hqIndex == -1) {
+      hqIndex = getClosestHQIndex(rc);
+
+      // We should always find an HQ, since they cannot be destroyed
+      if (hqIndex == -1) {
+        throw new RuntimeException("should not be here");
+      }
+    }
+
+    if (out.length == 0) {
+      return 0;
+    }
+
+    out[0] = SharedArray.read(hqIndex, rc);
+    return 1;
+  }
+
   private int getClosestHQIndex(RobotController rc) throws GameActionException {
     MapLocation myLoc = rc.getLocation();
 
     int closestHQIndex = -1;
     int shortestDistance = 0;
     for (int i = 0; i < 4; i++) {
-      int encoding = rc.readSharedArray(i);
+      int encoding = SharedArray.read(i, rc);
 
       // If HQ slot is empty, ignore it
       if (encoding == 0) {
         continue;
       }
 
-      Message message = Decoding.hqStateMessage(encoding);
+      int locEncoding = Decoding.hqStateMessageMapLocation(encoding);
 
       // If the distance to this HQ is shorter than any one we've seen, set the hqIndex to it
-      int distance = myLoc.distanceSquaredTo(message.loc);
+      int distance = Utils.distanceSquared(myLoc, Decoding.mapLocationX(locEncoding), Decoding.mapLocationY(locEncoding));
       if (closestHQIndex == -1 || distance < shortestDistance) {
         closestHQIndex = i;
         shortestDistance = distance;
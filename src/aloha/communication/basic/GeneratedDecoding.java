@@ -0,0 +1,91 @@
+// Code generated by aloha.codegen.MessageCodecGenerator from messages.schema. DO NOT EDIT.
+//  Run `./gradlew generateMessageCodecs` after changing the schema.
+
+package aloha.communication.basic;
+
+import aloha.communication.Entity;
+import aloha.communication.MessageType;
+import aloha.robots.headquarters.HeadquartersState;
+
+public class GeneratedDecoding {
+  public static Entity entity(int encoding) {
+    switch(encoding) {
+    case 1:   return Entity.ALL_ROBOTS;
+    case 2:   return Entity.HEADQUARTERS;
+    case 3:   return Entity.CARRIERS;
+    case 4:   return Entity.LAUNCHERS;
+    case 5:   return Entity.AMPLIFIERS;
+    case 6:   return Entity.BOOSTERS;
+    case 7:   return Entity.DESTABILIZERS;
+    default: throw new RuntimeException("should not be here, got: " + encoding);
+    }
+  }
+
+  public static MessageType messageType(int encoding) {
+    switch(encoding) {
+    case 1:   return MessageType.HQ_STATE;
+    case 2:   return MessageType.ENEMY_LOC;
+    case 3:   return MessageType.NO_ENEMY_LOC;
+    case 4:   return MessageType.AD_WELL_LOC;
+    case 5:   return MessageType.MN_WELL_LOC;
+    case 6:   return MessageType.EX_WELL_LOC;
+    case 7:   return MessageType.FRIENDLY_ISLAND_LOC;
+    case 8:   return MessageType.ENEMY_ISLAND_LOC;
+    case 9:   return MessageType.NEUTRAL_ISLAND_LOC;
+    case 10:  return MessageType.ENEMY_HQ_LOC;
+    default: throw new RuntimeException("should not be here, got: " + encoding);
+    }
+  }
+
+  public static HeadquartersState hqState(int encoding) {
+    switch(encoding) {
+    case 1:   return HeadquartersState.BUILD_ANCHOR;
+    case 2:   return HeadquartersState.BUILD_CARRIER;
+    case 3:   return HeadquartersState.BUILD_LAUNCHER;
+    case 4:   return HeadquartersState.BUILD_AMPLIFIER;
+    default: throw new RuntimeException("should not be here, got: " + encoding);
+    }
+  }
+
+  // mapLocationX extracts the x bits from a map location encoding, in the format
+  //    <x bits> | <y bits>
+  public static int mapLocationX(int encoding) {
+    return (encoding >> 6) & 63;
+  }
+
+  // mapLocationY extracts the y bits from a map location encoding, in the format
+  //    <x bits> | <y bits>
+  public static int mapLocationY(int encoding) {
+    return encoding & 63;
+  }
+
+  // hqStateMessageMapLocation extracts the map location bits from an hq state message encoding, in the format
+  //    <map location bits> | <hq state bits>
+  public static int hqStateMessageMapLocation(int encoding) {
+    return (encoding >> 4) & 4095;
+  }
+
+  // hqStateMessageHQState extracts the hq state bits from an hq state message encoding, in the format
+  //    <map location bits> | <hq state bits>
+  public static int hqStateMessageHQState(int encoding) {
+    return encoding & 15;
+  }
+
+  // locationMessageMapLocation extracts the map location bits from a location message encoding, in the format
+  //    <map location bits> | <message type bits>
+  public static int locationMessageMapLocation(int encoding) {
+    return (encoding >> 4) & 4095;
+  }
+
+  // locationMessageMessageType extracts the message type bits from a location message encoding, in the format
+  //    <map location bits> | <message type bits>
+  public static int locationMessageMessageType(int encoding) {
+    return encoding & 15;
+  }
+
+  // roundStampRoundNum extracts the round num bits from a round stamp encoding, in the format
+  //    <round num bits> | <message type bits>
+  public static int roundStampRoundNum(int encoding) {
+    return (encoding >> 4) & 4095;
+  }
+}
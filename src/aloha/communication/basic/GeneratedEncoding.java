@@ -0,0 +1,106 @@
+// Code generated by aloha.codegen.MessageCodecGenerator from messages.schema. DO NOT EDIT.
+//  Run `./gradlew generateMessageCodecs` after changing the schema.
+
+package aloha.communication.basic;
+
+import aloha.communication.Entity;
+import aloha.communication.MessageType;
+import aloha.robots.headquarters.HeadquartersState;
+
+public class GeneratedEncoding {
+  // ENTITY_ENCODING_LENGTH is the number of bits it takes to encode an entity
+  public static final int ENTITY_ENCODING_LENGTH = 3;
+  // ENTITY_ENCODING_MASK is a mask with the last ENTITY_ENCODING_LENGTH bits set
+  public static final int ENTITY_ENCODING_MASK = 7;
+
+  // MESSAGE_TYPE_ENCODING_LENGTH is the number of bits it takes to encode a message type
+  public static final int MESSAGE_TYPE_ENCODING_LENGTH = 4;
+  // MESSAGE_TYPE_ENCODING_MASK is a mask with the last MESSAGE_TYPE_ENCODING_LENGTH bits set
+  public static final int MESSAGE_TYPE_ENCODING_MASK = 15;
+
+  // HQ_STATE_ENCODING_LENGTH is the number of bits it takes to encode a headquarters state
+  public static final int HQ_STATE_ENCODING_LENGTH = 4;
+  // HQ_STATE_ENCODING_MASK is a mask with the last HQ_STATE_ENCODING_LENGTH bits set
+  public static final int HQ_STATE_ENCODING_MASK = 15;
+
+  // COORDINATE_ENCODING_LENGTH is the number of bits it takes to encode an x or y coordinate, which both range from [0, 60)
+  public static final int COORDINATE_ENCODING_LENGTH = 6;
+  // COORDINATE_ENCODING_MASK is a mask with the last COORDINATE_ENCODING_LENGTH bits set
+  public static final int COORDINATE_ENCODING_MASK = 63;
+
+  // MAPLOCATION_ENCODING_LENGTH is the number of bits it takes to encode a maplocation
+  public static final int MAPLOCATION_ENCODING_LENGTH = 12;
+  // MAPLOCATION_ENCODING_MASK is a mask with the last MAPLOCATION_ENCODING_LENGTH bits set
+  public static final int MAPLOCATION_ENCODING_MASK = 4095;
+
+  // ROUND_STAMP_ENCODING_LENGTH is the number of bits it takes to encode a round number, which ranges from [1, 2000]
+  public static final int ROUND_STAMP_ENCODING_LENGTH = 12;
+  // ROUND_STAMP_ENCODING_MASK is a mask with the last ROUND_STAMP_ENCODING_LENGTH bits set
+  public static final int ROUND_STAMP_ENCODING_MASK = 4095;
+
+  // ROUND_STAMP_MESSAGE_TYPE_ENCODING is the message type of every round stamp.
+  public static final int ROUND_STAMP_MESSAGE_TYPE_ENCODING = 15;
+
+  public static int of(Entity entity) {
+    switch(entity) {
+    case ALL_ROBOTS:          return 1;
+    case HEADQUARTERS:        return 2;
+    case CARRIERS:            return 3;
+    case LAUNCHERS:           return 4;
+    case AMPLIFIERS:          return 5;
+    case BOOSTERS:            return 6;
+    case DESTABILIZERS:       return 7;
+    default: throw new RuntimeException("should not be here");
+    }
+  }
+
+  public static int of(MessageType messageType) {
+    switch(messageType) {
+    case HQ_STATE:            return 1;
+    case ENEMY_LOC:           return 2;
+    case NO_ENEMY_LOC:        return 3;
+    case AD_WELL_LOC:         return 4;
+    case MN_WELL_LOC:         return 5;
+    case EX_WELL_LOC:         return 6;
+    case FRIENDLY_ISLAND_LOC: return 7;
+    case ENEMY_ISLAND_LOC:    return 8;
+    case NEUTRAL_ISLAND_LOC:  return 9;
+    case ENEMY_HQ_LOC:        return 10;
+    default: throw new RuntimeException("should not be here");
+    }
+  }
+
+  public static int of(HeadquartersState headquartersState) {
+    switch(headquartersState) {
+    case BUILD_ANCHOR:        return 1;
+    case BUILD_CARRIER:       return 2;
+    case BUILD_LAUNCHER:      return 3;
+    case BUILD_AMPLIFIER:     return 4;
+    default: throw new RuntimeException("should not be here");
+    }
+  }
+
+  // ofMapLocation encodes a maplocation, in the format
+  //    <x bits> | <y bits>
+  public static int ofMapLocation(int x, int y) {
+    return (x << 6) | y;
+  }
+
+  // ofHQStateMessage encodes headquarters state messages, in the format
+  //    <map location bits> | <hq state bits>
+  public static int ofHQStateMessage(int mapLocation, int hqState) {
+    return (mapLocation << 4) | hqState;
+  }
+
+  // ofLocationMessage encodes messages that only have a message type and location component, in the format
+  //    <map location bits> | <message type bits>
+  public static int ofLocationMessage(int mapLocation, int messageType) {
+    return (mapLocation << 4) | messageType;
+  }
+
+  // ofRoundStamp encodes the round stamp of a timestamped message, which is sent in the slot right after the message, in the format
+  //    <round num bits> | <message type bits>
+  public static int ofRoundStamp(int roundNum) {
+    return (roundNum << 4) | 15;
+  }
+}
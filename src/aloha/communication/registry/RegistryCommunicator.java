@@ -0,0 +1,158 @@
+package aloha.communication.registry;
+
+import battlecode.common.*;
+import java.util.*;
+import aloha.communication.*;
+import aloha.communication.basic.*;
+import aloha.utils.*;
+
+public class RegistryCommunicator extends BasicCommunicator {
+  /***
+  The RegistryCommunicator stores well locations in a persistent registry
+    region of the shared array (see SharedArrayLayout), instead of the robot-specific ring buffers.
+    All other messages are handled by the BasicCommunicator.
+
+  A location hashes to a fixed slot of the registry, and collisions are resolved with linear
+    probing. Each slot holds the location message encoding of one well, in the format
+      <location bits> | <message type bits>
+    and 0 if the slot is empty. An entry is written once and stays readable for the rest of the game,
+    so robots don't need to be listening at the time a well is discovered. The message type
+    of an entry is overwritten in place when it changes (e.g. when a well is converted to an elixir well).
+    A well that's already registered is not written again, so the registry is also what dedupes well
+    reports across the team. Unlike a bloom filter of reported locations, it never mistakes a new well
+    for a reported one, so no well goes unreported.
+    Sky-islands have a table of their own (see Islands).
+
+  Messages that don't fit in a full registry fall back to the robot-specific ring buffers.
+  ***/
+
+  // REGISTRY_HASH_MULTIPLIER is the 32-bit golden ratio constant of Fibonacci hashing. Multiplying by it mixes every
+  //  bit of the location encoding into the upper bits of the product, so neighbouring locations (whose encodings
+  //  differ by 1 or by 64) land in different slots whatever the registry length.
+  private static final int REGISTRY_HASH_MULTIPLIER = 0x9E3779B1;
+
+  // overflowEncodings is a scratch buffer for messages received through the ring buffers.
+  private static final int[] overflowEncodings = new int[GameConstants.SHARED_ARRAY_LENGTH];
+
+  @Override
+  public boolean sendMessage(Message message, RobotController rc) throws GameActionException {
+    if (!isRegistryMessageType(message.messageType)) {
+      return super.sendMessage(message, rc);
+    }
+
+    int encoding = Encoding.ofLocationMessage(message);
+    int locEncoding = Encoding.of(message.loc);
+
+    // Probe for the slot holding this location, or the first empty slot
+    int slot = hash(locEncoding);
+    for (int probes = 0; probes < SharedArrayLayout.REGISTRY_LENGTH; probes++) {
+      int idx = SharedArrayLayout.REGISTRY_FIRST_INDEX + slot;
+      int existingEncoding = SharedArray.read(idx, rc);
+
+      // This location is already registered with the same message type, nothing to write
+      if (existingEncoding == encoding) {
+        return true;
+      }
+
+      // Register the location in an empty slot, or update the message type of an existing entry
+      if (existingEncoding == 0 || Decoding.locationMessageMapLocation(existingEncoding) == locEncoding) {
+        if (!rc.canWriteSharedArray(idx, encoding)) {
+          return false;
+        }
+
+        SharedArray.write(idx, encoding, rc);
+        Log.println("Registered " + message.messageType + " loc " + message.loc);
+        return true;
+      }
+
+      slot = slot+1 == SharedArrayLayout.REGISTRY_LENGTH ? 0 : slot+1;
+    }
+
+    // The registry is full, fall back to the ring buffers
+    return super.sendMessage(message, rc);
+  }
+
+  @Override
+  public List<Message> receiveMessages(MessageType messageType, RobotController rc) throws GameActionException {
+    if (!isRegistryMessageType(messageType)) {
+      return super.receiveMessages(messageType, rc);
+    }
+
+    int[] encodings = new int[GameConstants.SHARED_ARRAY_LENGTH];
+    int numEncodings = receiveInto(messageType, encodings, rc);
+    List<Message> messages = new ArrayList<>(numEncodings);
+    for (int i = 0; i < numEncodings; i++) {
+      messages.add(Decoding.locationMessage(encodings[i]));
+    }
+
+    return messages;
+  }
+
+  @Override
+  public int receiveInto(MessageType messageType, int[] out, RobotController rc) throws GameActionException {
+    if (!isRegistryMessageType(messageType)) {
+      return super.receiveInto(messageType, out, rc);
+    }
+
+    // Every registered location of the requested type is received, not only the ones registered since the last call
+    int messageTypeEncoding = Encoding.of(messageType);
+    int numMessages = 0;
+    for (int i = 0; i < SharedArrayLayout.REGISTRY_LENGTH && numMessages < out.length; i++) {
+      int encoding = SharedArray.read(SharedArrayLayout.REGISTRY_FIRST_INDEX + i, rc);
+      if (encoding != 0 && (encoding & Encoding.MESSAGE_TYPE_ENCODING_MASK) == messageTypeEncoding) {
+        out[numMessages++] = encoding;
+      }
+    }
+
+    // Also receive the messages that overflowed into the ring buffers
+    int numOverflowMessages = super.receiveInto(messageType, overflowEncodings, rc);
+    for (int i = 0; i < numOverflowMessages && numMessages < out.length; i++) {
+      out[numMessages++] = overflowEncodings[i];
+    }
+
+    return numMessages;
+  }
+
+  // slotOf returns the registry slot holding the well at the given location, or -1 if it's not registered.
+  public static int slotOf(MapLocation loc, RobotController rc) throws GameActionException {
+    int locEncoding = Encoding.of(loc);
+    int slot = hash(locEncoding);
+    for (int probes = 0; probes < SharedArrayLayout.REGISTRY_LENGTH; probes++) {
+      int existingEncoding = SharedArray.read(SharedArrayLayout.REGISTRY_FIRST_INDEX + slot, rc);
+      if (existingEncoding == 0) {
+        return -1;
+      }
+
+      if (Decoding.locationMessageMapLocation(existingEncoding) == locEncoding) {
+        return slot;
+      }
+
+      slot = slot+1 == SharedArrayLayout.REGISTRY_LENGTH ? 0 : slot+1;
+    }
+
+    return -1;
+  }
+
+  // wellAt returns the location of the well in the given registry slot, or null if the slot is empty.
+  public static MapLocation wellAt(int slot, RobotController rc) throws GameActionException {
+    int encoding = SharedArray.read(SharedArrayLayout.REGISTRY_FIRST_INDEX + slot, rc);
+    if (encoding == 0) {
+      return null;
+    }
+
+    return Decoding.mapLocation(Decoding.locationMessageMapLocation(encoding));
+  }
+
+  private static int hash(int locEncoding) {
+    return ((locEncoding * REGISTRY_HASH_MULTIPLIER) >>> 16) % SharedArrayLayout.REGISTRY_LENGTH;
+  }
+
+  private static boolean isRegistryMessageType(MessageType messageType) {
+    switch(messageType) {
+      case AD_WELL_LOC:           return true;
+      case MN_WELL_LOC:           return true;
+      case EX_WELL_LOC:           return true;
+      default:                    return false;
+    }
+  }
+}
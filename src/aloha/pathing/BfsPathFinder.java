@@ -0,0 +1,59 @@
+package aloha.pathing;
+
+import battlecode.common.*;
+import java.util.*;
+
+// BfsPathFinder finds the shortest path to dst through the tiles around the robot (see GeneratedBfs), so it walks around
+//  wall pockets that FuzzyPathFinder, which only looks one step ahead, walks into. If it finds no path to dst, it heads
+//  to the reachable tile on the edge of its search closest to dst, and keeps heading to that tile until it gets there,
+//  so it doesn't turn back every time a dead end comes into sight. It runs at most one search per turn, and when there
+//  aren't enough bytecodes left for it, it falls back to FuzzyPathFinder.
+public class BfsPathFinder implements PathFinder {
+    // MIN_SEARCH_BYTECODES is the number of bytecodes that must be left to run the search. It's an upper bound of the
+    //  cost of a search, which GeneratedBfsTest checks.
+    public static final int MIN_SEARCH_BYTECODES = 5000;
+
+    private final PathFinder fuzzyPathFinder = new FuzzyPathFinder();
+
+    // dst is the destination of the last search, and waypoint is the tile we're heading to on the way to dst, or
+    //  null if we're heading straight to dst.
+    private MapLocation dst = null;
+    private MapLocation waypoint = null;
+
+    @Override
+    public Optional<Direction> findPath(MapLocation src, MapLocation dst, RobotController rc) throws GameActionException {
+        if (src.equals(dst)) {
+            return Optional.empty();
+        }
+
+        // The search senses the tiles around the robot, so it can only search from the robot's location
+        if (!src.equals(rc.getLocation()) || Clock.getBytecodesLeft() < MIN_SEARCH_BYTECODES) {
+            return fuzzyPathFinder.findPath(src, dst, rc);
+        }
+
+        if (!dst.equals(this.dst) || src.equals(waypoint)) {
+            this.dst = dst;
+            this.waypoint = null;
+        }
+
+        // Head to our waypoint if we have one, and to dst otherwise. Only one search fits in a turn, so if we lost the
+        //  path to our waypoint, we drop it and leave the search for a new one to next turn.
+        Direction direction = GeneratedBfs.firstStep(src, waypoint != null ? waypoint : dst, rc);
+        if (waypoint == null) {
+            waypoint = GeneratedBfs.waypoint;
+        } else if (direction == null || GeneratedBfs.waypoint != null) {
+            waypoint = null;
+            return fuzzyPathFinder.findPath(src, dst, rc);
+        }
+
+        if (direction == null) {
+            // dst is right next to us but we can't step onto it, e.g. it's occupied, so we wait for it
+            if (src.isAdjacentTo(dst)) {
+                return Optional.empty();
+            }
+            return fuzzyPathFinder.findPath(src, dst, rc);
+        }
+
+        return Optional.of(direction);
+    }
+}
@@ -0,0 +1,135 @@
+package aloha.pathing;
+
+import battlecode.common.*;
+import java.util.*;
+
+// BugPathFinder navigates with Bug2: it moves straight to dst along the M-line, the line from where it started to dst.
+//  When a wall blocks it, it records the hit point and follows the wall, with the wall on the side given by its
+//  rotation preference, until it's back on the M-line closer to dst than it's ever been. This gets around concave
+//  obstacles that FuzzyPathFinder walks back and forth in, and looks at no more than the 8 tiles around it per turn.
+//
+// If it follows a wall all the way back to the hit point, it's going in a loop, so it switches sides. It also switches
+//  after MAX_TURNS_WITHOUT_PROGRESS turns without getting any closer to dst, in case other robots kept it from ever
+//  getting back to the hit point. If that happens on both sides, dst can't be reached from here, and it starts over
+//  with a new M-line from where it is.
+public class BugPathFinder extends WallFollower implements PathFinder {
+    private static final int MAX_TURNS_WITHOUT_PROGRESS = 100;
+
+    private MapLocation dst = null;
+    // start is where the M-line starts.
+    private MapLocation start = null;
+
+    // isFollowingWall is true while we're going around a wall, which we hit at hitPoint.
+    private boolean isFollowingWall = false;
+    private MapLocation hitPoint = null;
+    // bestDistance is the closest we've been to dst, as a squared distance.
+    private int bestDistance = Integer.MAX_VALUE;
+    private int turnsWithoutProgress = 0;
+    private RotationPreference rotation = RotationPreference.getRandomConcreteRotationPreference();
+    private boolean hasSwitchedSides = false;
+
+    // pendingSrc and pendingDirection are the location and direction we returned last turn while following a wall.
+    //  The direction only becomes the last direction we followed the wall in once we've actually moved.
+    private MapLocation pendingSrc = null;
+    private Direction pendingDirection = null;
+
+    @Override
+    public Optional<Direction> findPath(MapLocation src, MapLocation dst, RobotController rc) throws GameActionException {
+        if (src.equals(dst)) {
+            return Optional.empty();
+        }
+
+        if (!dst.equals(this.dst)) {
+            this.dst = dst;
+            restart(src);
+        }
+
+        if (pendingSrc != null && !pendingSrc.equals(src)) {
+            setLastDirectionFollowingWall(pendingDirection);
+        }
+        pendingSrc = null;
+
+        int distance = src.distanceSquaredTo(dst);
+        if (distance < bestDistance) {
+            bestDistance = distance;
+            turnsWithoutProgress = 0;
+        } else {
+            turnsWithoutProgress++;
+        }
+
+        Direction straightAhead = src.directionTo(dst);
+        boolean canGoStraight = !isBlocked(src.add(straightAhead), rc);
+
+        if (!isFollowingWall) {
+            if (canGoStraight) {
+                return Optional.of(straightAhead);
+            }
+
+            // We hit a wall, go around it
+            isFollowingWall = true;
+            hitPoint = src;
+            resetLastDirectionFollowingWall();
+        } else if (canGoStraight && turnsWithoutProgress == 0 && isOnMLine(src)) {
+            // We're back on the M-line and closer than we've been, so we got around the wall
+            isFollowingWall = false;
+            hasSwitchedSides = false;
+            return Optional.of(straightAhead);
+        } else if ((src.equals(hitPoint) && getLastDirectionFollowingWall() != null) || turnsWithoutProgress > MAX_TURNS_WITHOUT_PROGRESS) {
+            if (hasSwitchedSides) {
+                // We went around both ways without getting closer, start over from here
+                restart(src);
+                return Optional.empty();
+            }
+
+            rotation = rotation.opposite();
+            hasSwitchedSides = true;
+            hitPoint = src;
+            turnsWithoutProgress = 0;
+            resetLastDirectionFollowingWall();
+        }
+
+        Optional<Direction> direction;
+        switch (rotation) {
+            case LEFT:  direction = getDirectionOfWallMovingLeft(src, dst, rc); break;
+            case RIGHT: direction = getDirectionOfWallMovingRight(src, dst, rc); break;
+            default: throw new RuntimeException("should not be here");
+        }
+
+        if (direction.isPresent()) {
+            pendingSrc = src;
+            pendingDirection = direction.get();
+        }
+
+        return direction;
+    }
+
+    // The edges of the map are walls too, even though they can't be sensed.
+    @Override
+    protected boolean isWall(MapLocation loc, RobotController rc) throws GameActionException {
+        return !rc.onTheMap(loc) || super.isWall(loc, rc);
+    }
+
+    private boolean isBlocked(MapLocation loc, RobotController rc) throws GameActionException {
+        return isWall(loc, rc) || (rc.canSenseLocation(loc) && rc.isLocationOccupied(loc));
+    }
+
+    // isOnMLine returns true if loc is within a tile of the M-line.
+    private boolean isOnMLine(MapLocation loc) {
+        int lineX = dst.x - start.x;
+        int lineY = dst.y - start.y;
+        int cross = lineX * (loc.y - start.y) - lineY * (loc.x - start.x);
+        return cross * cross <= lineX * lineX + lineY * lineY;
+    }
+
+    // restart drops the wall we were following, and draws a new M-line from src.
+    private void restart(MapLocation src) {
+        start = src;
+        isFollowingWall = false;
+        hitPoint = null;
+        bestDistance = Integer.MAX_VALUE;
+        turnsWithoutProgress = 0;
+        hasSwitchedSides = false;
+        pendingSrc = null;
+        resetLastDirectionFollowingWall();
+    }
+}
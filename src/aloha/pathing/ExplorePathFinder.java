@@ -1,14 +1,27 @@
 package aloha.pathing;
 
 import battlecode.common.*;
+import aloha.communication.FrontierClaims;
+import aloha.communication.Sectors;
+import aloha.utils.MapMemory;
 import aloha.utils.Utils;
 import java.util.*;
 
+// ExplorePathFinder heads to the nearest sector no robot has explored or claimed yet (see Sectors and FrontierClaims),
+//  and falls back to a random walk once every sector is explored. It claims the sector it heads to, so other explorers
+//  head elsewhere.
 public class ExplorePathFinder implements PathFinder {
     private static final Random rng = Utils.getRng();
+    private final PathFinder fuzzyPathFinder = new FuzzyPathFinder();
     private int boredom = 0;
     private Direction direction;
 
+    // targetSector is the unexplored sector we're heading to, or -1 if we're walking randomly.
+    private int targetSector = -1;
+    private MapLocation target;
+    // isMapExplored is set once every sector is explored. Sectors are never unexplored, so we stop looking then.
+    private boolean isMapExplored = false;
+
     private static final int EXPLORER_BOREDOM_THRESHOLD = 10;
 
     public void setDirection(Direction direction) {
@@ -17,6 +30,26 @@ public class ExplorePathFinder implements PathFinder {
     }
 
     public Optional<Direction> findPath(MapLocation src, MapLocation dst, RobotController rc) throws GameActionException {
+        // Pick a new sector once the one we're heading to was explored, by us or by anyone else
+        if (!isMapExplored && (targetSector == -1 || (Sectors.get(targetSector, rc) & Sectors.EXPLORED) != 0)) {
+            targetSector = Sectors.nearestUnclaimed(src, rc);
+            target = targetSector == -1 ? null : Sectors.centerOf(targetSector, rc);
+            isMapExplored = targetSector == -1;
+        }
+
+        // Claim the sector we're heading to, or claim it again once the headquarters cleared the claims
+        if (targetSector != -1 && !FrontierClaims.isClaimed(targetSector, rc)) {
+            FrontierClaims.claim(targetSector, rc);
+        }
+
+        if (target != null && !src.equals(target)) {
+            return fuzzyPathFinder.findPath(src, target, rc);
+        }
+
+        return findRandomPath(src, rc);
+    }
+
+    private Optional<Direction> findRandomPath(MapLocation src, RobotController rc) throws GameActionException {
         if (direction == null) {
             direction = Utils.getRandomDirection();
             boredom = 0;
@@ -58,7 +91,7 @@ public class ExplorePathFinder implements PathFinder {
         }
 
         // bumped into another robot or impassable square, try to dodge
-        if (rc.onTheMap(newLocation) && (!rc.sensePassability(newLocation) || rc.senseRobotAtLocation(newLocation) != null)) {
+        if (rc.onTheMap(newLocation) && (MapMemory.isWall(newLocation, rc) || rc.isLocationOccupied(newLocation))) {
           Direction newDirection;
           switch (rng.nextInt(2)) {
               case 0:
@@ -5,6 +5,7 @@ import battlecode.common.GameActionException;
 import battlecode.common.MapLocation;
 import battlecode.common.RobotController;
 import aloha.pathing.WallFollower;
+import aloha.utils.MapMemory;
 import aloha.utils.Utils;
 
 import java.util.Random;
@@ -22,8 +23,10 @@ public class FuzzyPathFinder extends WallFollower implements PathFinder {
     private boolean isRightDisabled = false;
 
     private int getCost(MapLocation loc, RobotController rc) throws GameActionException {
-        // consider edges of the map, other robots, and previously visited squares as 'immovable objects'
-        if (!rc.onTheMap(loc) || rc.senseRobotAtLocation(loc) != null || visited.contains(loc) || !rc.sensePassability(loc)) {
+        // consider edges of the map, other robots, and previously visited squares as 'immovable objects'. Only
+        //  check whether a robot is there, since sensing the robot itself costs more and we don't need its info,
+        //  and look walls up in the map memory, since they don't move.
+        if (!rc.onTheMap(loc) || rc.isLocationOccupied(loc) || visited.contains(loc) || MapMemory.isWall(loc, rc)) {
             return IMMOVABLE_OBJECT_COST;
         }
 
@@ -0,0 +1,787 @@
+// Code generated by aloha.codegen.BfsGenerator. DO NOT EDIT.
+//  Run `./gradlew generateBfs` after changing the generator.
+
+package aloha.pathing;
+
+import battlecode.common.*;
+
+// GeneratedBfs is a breadth-first search over the tiles within RADIUS_SQUARED of a robot, unrolled into local
+//  variables (see BfsPathFinder).
+public class GeneratedBfs {
+    // RADIUS_SQUARED is the radius of the searched area around the robot.
+    public static final int RADIUS_SQUARED = 20;
+    // NUM_TILES is the number of tiles in the searched area, not counting the robot's own tile.
+    public static final int NUM_TILES = 68;
+
+    private static final int UNREACHABLE = 10000;
+
+    // waypoint is the tile the last search headed to, if dst was outside the searched area, or null otherwise.
+    public static MapLocation waypoint = null;
+
+    // firstStep returns the first step of the shortest path from src, which must be the robot's location, to dst,
+    //  or null if dst is in the searched area but it found no path to it. If dst is outside the searched area, it
+    //  returns the first step towards the reachable tile on the edge of the searched area closest to dst, and sets
+    //  waypoint to that tile. Returns null if no tile is reachable.
+    public static Direction firstStep(MapLocation src, MapLocation dst, RobotController rc) throws GameActionException {
+        int x = src.x;
+        int y = src.y;
+
+        // Ring 1
+        MapLocation l_m1_m1 = src.translate(-1, -1);
+        int d_m1_m1 = UNREACHABLE;
+        Direction f_m1_m1 = null;
+        if (rc.canSenseLocation(l_m1_m1) && rc.sensePassability(l_m1_m1) && !rc.isLocationOccupied(l_m1_m1)) {
+            d_m1_m1 = 1;
+            f_m1_m1 = Direction.SOUTHWEST;
+        }
+        MapLocation l_p0_m1 = src.translate(0, -1);
+        int d_p0_m1 = UNREACHABLE;
+        Direction f_p0_m1 = null;
+        if (rc.canSenseLocation(l_p0_m1) && rc.sensePassability(l_p0_m1) && !rc.isLocationOccupied(l_p0_m1)) {
+            d_p0_m1 = 1;
+            f_p0_m1 = Direction.SOUTH;
+        }
+        MapLocation l_p1_m1 = src.translate(1, -1);
+        int d_p1_m1 = UNREACHABLE;
+        Direction f_p1_m1 = null;
+        if (rc.canSenseLocation(l_p1_m1) && rc.sensePassability(l_p1_m1) && !rc.isLocationOccupied(l_p1_m1)) {
+            d_p1_m1 = 1;
+            f_p1_m1 = Direction.SOUTHEAST;
+        }
+        MapLocation l_p1_p0 = src.translate(1, 0);
+        int d_p1_p0 = UNREACHABLE;
+        Direction f_p1_p0 = null;
+        if (rc.canSenseLocation(l_p1_p0) && rc.sensePassability(l_p1_p0) && !rc.isLocationOccupied(l_p1_p0)) {
+            d_p1_p0 = 1;
+            f_p1_p0 = Direction.EAST;
+        }
+        MapLocation l_p1_p1 = src.translate(1, 1);
+        int d_p1_p1 = UNREACHABLE;
+        Direction f_p1_p1 = null;
+        if (rc.canSenseLocation(l_p1_p1) && rc.sensePassability(l_p1_p1) && !rc.isLocationOccupied(l_p1_p1)) {
+            d_p1_p1 = 1;
+            f_p1_p1 = Direction.NORTHEAST;
+        }
+        MapLocation l_p0_p1 = src.translate(0, 1);
+        int d_p0_p1 = UNREACHABLE;
+        Direction f_p0_p1 = null;
+        if (rc.canSenseLocation(l_p0_p1) && rc.sensePassability(l_p0_p1) && !rc.isLocationOccupied(l_p0_p1)) {
+            d_p0_p1 = 1;
+            f_p0_p1 = Direction.NORTH;
+        }
+        MapLocation l_m1_p1 = src.translate(-1, 1);
+        int d_m1_p1 = UNREACHABLE;
+        Direction f_m1_p1 = null;
+        if (rc.canSenseLocation(l_m1_p1) && rc.sensePassability(l_m1_p1) && !rc.isLocationOccupied(l_m1_p1)) {
+            d_m1_p1 = 1;
+            f_m1_p1 = Direction.NORTHWEST;
+        }
+        MapLocation l_m1_p0 = src.translate(-1, 0);
+        int d_m1_p0 = UNREACHABLE;
+        Direction f_m1_p0 = null;
+        if (rc.canSenseLocation(l_m1_p0) && rc.sensePassability(l_m1_p0) && !rc.isLocationOccupied(l_m1_p0)) {
+            d_m1_p0 = 1;
+            f_m1_p0 = Direction.WEST;
+        }
+
+        // Ring 2
+        MapLocation l_m2_m1 = src.translate(-2, -1);
+        int d_m2_m1 = UNREACHABLE;
+        Direction f_m2_m1 = null;
+        if (rc.canSenseLocation(l_m2_m1) && rc.sensePassability(l_m2_m1)) {
+            if (d_m1_m1 < d_m2_m1) { d_m2_m1 = d_m1_m1; f_m2_m1 = f_m1_m1; }
+            if (d_m1_p0 < d_m2_m1) { d_m2_m1 = d_m1_p0; f_m2_m1 = f_m1_p0; }
+            d_m2_m1 += 1;
+        }
+        MapLocation l_m2_m2 = src.translate(-2, -2);
+        int d_m2_m2 = UNREACHABLE;
+        Direction f_m2_m2 = null;
+        if (rc.canSenseLocation(l_m2_m2) && rc.sensePassability(l_m2_m2)) {
+            if (d_m1_m1 < d_m2_m2) { d_m2_m2 = d_m1_m1; f_m2_m2 = f_m1_m1; }
+            if (d_m2_m1 < d_m2_m2) { d_m2_m2 = d_m2_m1; f_m2_m2 = f_m2_m1; }
+            d_m2_m2 += 1;
+        }
+        MapLocation l_m1_m2 = src.translate(-1, -2);
+        int d_m1_m2 = UNREACHABLE;
+        Direction f_m1_m2 = null;
+        if (rc.canSenseLocation(l_m1_m2) && rc.sensePassability(l_m1_m2)) {
+            if (d_m1_m1 < d_m1_m2) { d_m1_m2 = d_m1_m1; f_m1_m2 = f_m1_m1; }
+            if (d_p0_m1 < d_m1_m2) { d_m1_m2 = d_p0_m1; f_m1_m2 = f_p0_m1; }
+            if (d_m2_m1 < d_m1_m2) { d_m1_m2 = d_m2_m1; f_m1_m2 = f_m2_m1; }
+            if (d_m2_m2 < d_m1_m2) { d_m1_m2 = d_m2_m2; f_m1_m2 = f_m2_m2; }
+            d_m1_m2 += 1;
+        }
+        MapLocation l_p0_m2 = src.translate(0, -2);
+        int d_p0_m2 = UNREACHABLE;
+        Direction f_p0_m2 = null;
+        if (rc.canSenseLocation(l_p0_m2) && rc.sensePassability(l_p0_m2)) {
+            if (d_m1_m1 < d_p0_m2) { d_p0_m2 = d_m1_m1; f_p0_m2 = f_m1_m1; }
+            if (d_p0_m1 < d_p0_m2) { d_p0_m2 = d_p0_m1; f_p0_m2 = f_p0_m1; }
+            if (d_p1_m1 < d_p0_m2) { d_p0_m2 = d_p1_m1; f_p0_m2 = f_p1_m1; }
+            if (d_m1_m2 < d_p0_m2) { d_p0_m2 = d_m1_m2; f_p0_m2 = f_m1_m2; }
+            d_p0_m2 += 1;
+        }
+        MapLocation l_p1_m2 = src.translate(1, -2);
+        int d_p1_m2 = UNREACHABLE;
+        Direction f_p1_m2 = null;
+        if (rc.canSenseLocation(l_p1_m2) && rc.sensePassability(l_p1_m2)) {
+            if (d_p0_m1 < d_p1_m2) { d_p1_m2 = d_p0_m1; f_p1_m2 = f_p0_m1; }
+            if (d_p1_m1 < d_p1_m2) { d_p1_m2 = d_p1_m1; f_p1_m2 = f_p1_m1; }
+            if (d_p0_m2 < d_p1_m2) { d_p1_m2 = d_p0_m2; f_p1_m2 = f_p0_m2; }
+            d_p1_m2 += 1;
+        }
+        MapLocation l_p2_m2 = src.translate(2, -2);
+        int d_p2_m2 = UNREACHABLE;
+        Direction f_p2_m2 = null;
+        if (rc.canSenseLocation(l_p2_m2) && rc.sensePassability(l_p2_m2)) {
+            if (d_p1_m1 < d_p2_m2) { d_p2_m2 = d_p1_m1; f_p2_m2 = f_p1_m1; }
+            if (d_p1_m2 < d_p2_m2) { d_p2_m2 = d_p1_m2; f_p2_m2 = f_p1_m2; }
+            d_p2_m2 += 1;
+        }
+        MapLocation l_p2_m1 = src.translate(2, -1);
+        int d_p2_m1 = UNREACHABLE;
+        Direction f_p2_m1 = null;
+        if (rc.canSenseLocation(l_p2_m1) && rc.sensePassability(l_p2_m1)) {
+            if (d_p1_m1 < d_p2_m1) { d_p2_m1 = d_p1_m1; f_p2_m1 = f_p1_m1; }
+            if (d_p1_p0 < d_p2_m1) { d_p2_m1 = d_p1_p0; f_p2_m1 = f_p1_p0; }
+            if (d_p1_m2 < d_p2_m1) { d_p2_m1 = d_p1_m2; f_p2_m1 = f_p1_m2; }
+            if (d_p2_m2 < d_p2_m1) { d_p2_m1 = d_p2_m2; f_p2_m1 = f_p2_m2; }
+            d_p2_m1 += 1;
+        }
+        MapLocation l_p2_p0 = src.translate(2, 0);
+        int d_p2_p0 = UNREACHABLE;
+        Direction f_p2_p0 = null;
+        if (rc.canSenseLocation(l_p2_p0) && rc.sensePassability(l_p2_p0)) {
+            if (d_p1_m1 < d_p2_p0) { d_p2_p0 = d_p1_m1; f_p2_p0 = f_p1_m1; }
+            if (d_p1_p0 < d_p2_p0) { d_p2_p0 = d_p1_p0; f_p2_p0 = f_p1_p0; }
+            if (d_p1_p1 < d_p2_p0) { d_p2_p0 = d_p1_p1; f_p2_p0 = f_p1_p1; }
+            if (d_p2_m1 < d_p2_p0) { d_p2_p0 = d_p2_m1; f_p2_p0 = f_p2_m1; }
+            d_p2_p0 += 1;
+        }
+        MapLocation l_p2_p1 = src.translate(2, 1);
+        int d_p2_p1 = UNREACHABLE;
+        Direction f_p2_p1 = null;
+        if (rc.canSenseLocation(l_p2_p1) && rc.sensePassability(l_p2_p1)) {
+            if (d_p1_p0 < d_p2_p1) { d_p2_p1 = d_p1_p0; f_p2_p1 = f_p1_p0; }
+            if (d_p1_p1 < d_p2_p1) { d_p2_p1 = d_p1_p1; f_p2_p1 = f_p1_p1; }
+            if (d_p2_p0 < d_p2_p1) { d_p2_p1 = d_p2_p0; f_p2_p1 = f_p2_p0; }
+            d_p2_p1 += 1;
+        }
+        MapLocation l_p2_p2 = src.translate(2, 2);
+        int d_p2_p2 = UNREACHABLE;
+        Direction f_p2_p2 = null;
+        if (rc.canSenseLocation(l_p2_p2) && rc.sensePassability(l_p2_p2)) {
+            if (d_p1_p1 < d_p2_p2) { d_p2_p2 = d_p1_p1; f_p2_p2 = f_p1_p1; }
+            if (d_p2_p1 < d_p2_p2) { d_p2_p2 = d_p2_p1; f_p2_p2 = f_p2_p1; }
+            d_p2_p2 += 1;
+        }
+        MapLocation l_p1_p2 = src.translate(1, 2);
+        int d_p1_p2 = UNREACHABLE;
+        Direction f_p1_p2 = null;
+        if (rc.canSenseLocation(l_p1_p2) && rc.sensePassability(l_p1_p2)) {
+            if (d_p1_p1 < d_p1_p2) { d_p1_p2 = d_p1_p1; f_p1_p2 = f_p1_p1; }
+            if (d_p0_p1 < d_p1_p2) { d_p1_p2 = d_p0_p1; f_p1_p2 = f_p0_p1; }
+            if (d_p2_p1 < d_p1_p2) { d_p1_p2 = d_p2_p1; f_p1_p2 = f_p2_p1; }
+            if (d_p2_p2 < d_p1_p2) { d_p1_p2 = d_p2_p2; f_p1_p2 = f_p2_p2; }
+            d_p1_p2 += 1;
+        }
+        MapLocation l_p0_p2 = src.translate(0, 2);
+        int d_p0_p2 = UNREACHABLE;
+        Direction f_p0_p2 = null;
+        if (rc.canSenseLocation(l_p0_p2) && rc.sensePassability(l_p0_p2)) {
+            if (d_p1_p1 < d_p0_p2) { d_p0_p2 = d_p1_p1; f_p0_p2 = f_p1_p1; }
+            if (d_p0_p1 < d_p0_p2) { d_p0_p2 = d_p0_p1; f_p0_p2 = f_p0_p1; }
+            if (d_m1_p1 < d_p0_p2) { d_p0_p2 = d_m1_p1; f_p0_p2 = f_m1_p1; }
+            if (d_p1_p2 < d_p0_p2) { d_p0_p2 = d_p1_p2; f_p0_p2 = f_p1_p2; }
+            d_p0_p2 += 1;
+        }
+        MapLocation l_m1_p2 = src.translate(-1, 2);
+        int d_m1_p2 = UNREACHABLE;
+        Direction f_m1_p2 = null;
+        if (rc.canSenseLocation(l_m1_p2) && rc.sensePassability(l_m1_p2)) {
+            if (d_p0_p1 < d_m1_p2) { d_m1_p2 = d_p0_p1; f_m1_p2 = f_p0_p1; }
+            if (d_m1_p1 < d_m1_p2) { d_m1_p2 = d_m1_p1; f_m1_p2 = f_m1_p1; }
+            if (d_p0_p2 < d_m1_p2) { d_m1_p2 = d_p0_p2; f_m1_p2 = f_p0_p2; }
+            d_m1_p2 += 1;
+        }
+        MapLocation l_m2_p2 = src.translate(-2, 2);
+        int d_m2_p2 = UNREACHABLE;
+        Direction f_m2_p2 = null;
+        if (rc.canSenseLocation(l_m2_p2) && rc.sensePassability(l_m2_p2)) {
+            if (d_m1_p1 < d_m2_p2) { d_m2_p2 = d_m1_p1; f_m2_p2 = f_m1_p1; }
+            if (d_m1_p2 < d_m2_p2) { d_m2_p2 = d_m1_p2; f_m2_p2 = f_m1_p2; }
+            d_m2_p2 += 1;
+        }
+        MapLocation l_m2_p1 = src.translate(-2, 1);
+        int d_m2_p1 = UNREACHABLE;
+        Direction f_m2_p1 = null;
+        if (rc.canSenseLocation(l_m2_p1) && rc.sensePassability(l_m2_p1)) {
+            if (d_m1_p1 < d_m2_p1) { d_m2_p1 = d_m1_p1; f_m2_p1 = f_m1_p1; }
+            if (d_m1_p0 < d_m2_p1) { d_m2_p1 = d_m1_p0; f_m2_p1 = f_m1_p0; }
+            if (d_m1_p2 < d_m2_p1) { d_m2_p1 = d_m1_p2; f_m2_p1 = f_m1_p2; }
+            if (d_m2_p2 < d_m2_p1) { d_m2_p1 = d_m2_p2; f_m2_p1 = f_m2_p2; }
+            d_m2_p1 += 1;
+        }
+        MapLocation l_m2_p0 = src.translate(-2, 0);
+        int d_m2_p0 = UNREACHABLE;
+        Direction f_m2_p0 = null;
+        if (rc.canSenseLocation(l_m2_p0) && rc.sensePassability(l_m2_p0)) {
+            if (d_m1_m1 < d_m2_p0) { d_m2_p0 = d_m1_m1; f_m2_p0 = f_m1_m1; }
+            if (d_m1_p1 < d_m2_p0) { d_m2_p0 = d_m1_p1; f_m2_p0 = f_m1_p1; }
+            if (d_m1_p0 < d_m2_p0) { d_m2_p0 = d_m1_p0; f_m2_p0 = f_m1_p0; }
+            if (d_m2_m1 < d_m2_p0) { d_m2_p0 = d_m2_m1; f_m2_p0 = f_m2_m1; }
+            if (d_m2_p1 < d_m2_p0) { d_m2_p0 = d_m2_p1; f_m2_p0 = f_m2_p1; }
+            d_m2_p0 += 1;
+        }
+
+        // Ring 3
+        MapLocation l_m3_m1 = src.translate(-3, -1);
+        int d_m3_m1 = UNREACHABLE;
+        Direction f_m3_m1 = null;
+        if (rc.canSenseLocation(l_m3_m1) && rc.sensePassability(l_m3_m1)) {
+            if (d_m2_m1 < d_m3_m1) { d_m3_m1 = d_m2_m1; f_m3_m1 = f_m2_m1; }
+            if (d_m2_m2 < d_m3_m1) { d_m3_m1 = d_m2_m2; f_m3_m1 = f_m2_m2; }
+            if (d_m2_p0 < d_m3_m1) { d_m3_m1 = d_m2_p0; f_m3_m1 = f_m2_p0; }
+            d_m3_m1 += 1;
+        }
+        MapLocation l_m3_m2 = src.translate(-3, -2);
+        int d_m3_m2 = UNREACHABLE;
+        Direction f_m3_m2 = null;
+        if (rc.canSenseLocation(l_m3_m2) && rc.sensePassability(l_m3_m2)) {
+            if (d_m2_m1 < d_m3_m2) { d_m3_m2 = d_m2_m1; f_m3_m2 = f_m2_m1; }
+            if (d_m2_m2 < d_m3_m2) { d_m3_m2 = d_m2_m2; f_m3_m2 = f_m2_m2; }
+            if (d_m3_m1 < d_m3_m2) { d_m3_m2 = d_m3_m1; f_m3_m2 = f_m3_m1; }
+            d_m3_m2 += 1;
+        }
+        MapLocation l_m3_m3 = src.translate(-3, -3);
+        int d_m3_m3 = UNREACHABLE;
+        Direction f_m3_m3 = null;
+        if (rc.canSenseLocation(l_m3_m3) && rc.sensePassability(l_m3_m3)) {
+            if (d_m2_m2 < d_m3_m3) { d_m3_m3 = d_m2_m2; f_m3_m3 = f_m2_m2; }
+            if (d_m3_m2 < d_m3_m3) { d_m3_m3 = d_m3_m2; f_m3_m3 = f_m3_m2; }
+            d_m3_m3 += 1;
+        }
+        MapLocation l_m2_m3 = src.translate(-2, -3);
+        int d_m2_m3 = UNREACHABLE;
+        Direction f_m2_m3 = null;
+        if (rc.canSenseLocation(l_m2_m3) && rc.sensePassability(l_m2_m3)) {
+            if (d_m2_m2 < d_m2_m3) { d_m2_m3 = d_m2_m2; f_m2_m3 = f_m2_m2; }
+            if (d_m1_m2 < d_m2_m3) { d_m2_m3 = d_m1_m2; f_m2_m3 = f_m1_m2; }
+            if (d_m3_m2 < d_m2_m3) { d_m2_m3 = d_m3_m2; f_m2_m3 = f_m3_m2; }
+            if (d_m3_m3 < d_m2_m3) { d_m2_m3 = d_m3_m3; f_m2_m3 = f_m3_m3; }
+            d_m2_m3 += 1;
+        }
+        MapLocation l_m1_m3 = src.translate(-1, -3);
+        int d_m1_m3 = UNREACHABLE;
+        Direction f_m1_m3 = null;
+        if (rc.canSenseLocation(l_m1_m3) && rc.sensePassability(l_m1_m3)) {
+            if (d_m2_m2 < d_m1_m3) { d_m1_m3 = d_m2_m2; f_m1_m3 = f_m2_m2; }
+            if (d_m1_m2 < d_m1_m3) { d_m1_m3 = d_m1_m2; f_m1_m3 = f_m1_m2; }
+            if (d_p0_m2 < d_m1_m3) { d_m1_m3 = d_p0_m2; f_m1_m3 = f_p0_m2; }
+            if (d_m2_m3 < d_m1_m3) { d_m1_m3 = d_m2_m3; f_m1_m3 = f_m2_m3; }
+            d_m1_m3 += 1;
+        }
+        MapLocation l_p0_m3 = src.translate(0, -3);
+        int d_p0_m3 = UNREACHABLE;
+        Direction f_p0_m3 = null;
+        if (rc.canSenseLocation(l_p0_m3) && rc.sensePassability(l_p0_m3)) {
+            if (d_m1_m2 < d_p0_m3) { d_p0_m3 = d_m1_m2; f_p0_m3 = f_m1_m2; }
+            if (d_p0_m2 < d_p0_m3) { d_p0_m3 = d_p0_m2; f_p0_m3 = f_p0_m2; }
+            if (d_p1_m2 < d_p0_m3) { d_p0_m3 = d_p1_m2; f_p0_m3 = f_p1_m2; }
+            if (d_m1_m3 < d_p0_m3) { d_p0_m3 = d_m1_m3; f_p0_m3 = f_m1_m3; }
+            d_p0_m3 += 1;
+        }
+        MapLocation l_p1_m3 = src.translate(1, -3);
+        int d_p1_m3 = UNREACHABLE;
+        Direction f_p1_m3 = null;
+        if (rc.canSenseLocation(l_p1_m3) && rc.sensePassability(l_p1_m3)) {
+            if (d_p0_m2 < d_p1_m3) { d_p1_m3 = d_p0_m2; f_p1_m3 = f_p0_m2; }
+            if (d_p1_m2 < d_p1_m3) { d_p1_m3 = d_p1_m2; f_p1_m3 = f_p1_m2; }
+            if (d_p2_m2 < d_p1_m3) { d_p1_m3 = d_p2_m2; f_p1_m3 = f_p2_m2; }
+            if (d_p0_m3 < d_p1_m3) { d_p1_m3 = d_p0_m3; f_p1_m3 = f_p0_m3; }
+            d_p1_m3 += 1;
+        }
+        MapLocation l_p2_m3 = src.translate(2, -3);
+        int d_p2_m3 = UNREACHABLE;
+        Direction f_p2_m3 = null;
+        if (rc.canSenseLocation(l_p2_m3) && rc.sensePassability(l_p2_m3)) {
+            if (d_p1_m2 < d_p2_m3) { d_p2_m3 = d_p1_m2; f_p2_m3 = f_p1_m2; }
+            if (d_p2_m2 < d_p2_m3) { d_p2_m3 = d_p2_m2; f_p2_m3 = f_p2_m2; }
+            if (d_p1_m3 < d_p2_m3) { d_p2_m3 = d_p1_m3; f_p2_m3 = f_p1_m3; }
+            d_p2_m3 += 1;
+        }
+        MapLocation l_p3_m3 = src.translate(3, -3);
+        int d_p3_m3 = UNREACHABLE;
+        Direction f_p3_m3 = null;
+        if (rc.canSenseLocation(l_p3_m3) && rc.sensePassability(l_p3_m3)) {
+            if (d_p2_m2 < d_p3_m3) { d_p3_m3 = d_p2_m2; f_p3_m3 = f_p2_m2; }
+            if (d_p2_m3 < d_p3_m3) { d_p3_m3 = d_p2_m3; f_p3_m3 = f_p2_m3; }
+            d_p3_m3 += 1;
+        }
+        MapLocation l_p3_m2 = src.translate(3, -2);
+        int d_p3_m2 = UNREACHABLE;
+        Direction f_p3_m2 = null;
+        if (rc.canSenseLocation(l_p3_m2) && rc.sensePassability(l_p3_m2)) {
+            if (d_p2_m2 < d_p3_m2) { d_p3_m2 = d_p2_m2; f_p3_m2 = f_p2_m2; }
+            if (d_p2_m1 < d_p3_m2) { d_p3_m2 = d_p2_m1; f_p3_m2 = f_p2_m1; }
+            if (d_p2_m3 < d_p3_m2) { d_p3_m2 = d_p2_m3; f_p3_m2 = f_p2_m3; }
+            if (d_p3_m3 < d_p3_m2) { d_p3_m2 = d_p3_m3; f_p3_m2 = f_p3_m3; }
+            d_p3_m2 += 1;
+        }
+        MapLocation l_p3_m1 = src.translate(3, -1);
+        int d_p3_m1 = UNREACHABLE;
+        Direction f_p3_m1 = null;
+        if (rc.canSenseLocation(l_p3_m1) && rc.sensePassability(l_p3_m1)) {
+            if (d_p2_m2 < d_p3_m1) { d_p3_m1 = d_p2_m2; f_p3_m1 = f_p2_m2; }
+            if (d_p2_m1 < d_p3_m1) { d_p3_m1 = d_p2_m1; f_p3_m1 = f_p2_m1; }
+            if (d_p2_p0 < d_p3_m1) { d_p3_m1 = d_p2_p0; f_p3_m1 = f_p2_p0; }
+            if (d_p3_m2 < d_p3_m1) { d_p3_m1 = d_p3_m2; f_p3_m1 = f_p3_m2; }
+            d_p3_m1 += 1;
+        }
+        MapLocation l_p3_p0 = src.translate(3, 0);
+        int d_p3_p0 = UNREACHABLE;
+        Direction f_p3_p0 = null;
+        if (rc.canSenseLocation(l_p3_p0) && rc.sensePassability(l_p3_p0)) {
+            if (d_p2_m1 < d_p3_p0) { d_p3_p0 = d_p2_m1; f_p3_p0 = f_p2_m1; }
+            if (d_p2_p0 < d_p3_p0) { d_p3_p0 = d_p2_p0; f_p3_p0 = f_p2_p0; }
+            if (d_p2_p1 < d_p3_p0) { d_p3_p0 = d_p2_p1; f_p3_p0 = f_p2_p1; }
+            if (d_p3_m1 < d_p3_p0) { d_p3_p0 = d_p3_m1; f_p3_p0 = f_p3_m1; }
+            d_p3_p0 += 1;
+        }
+        MapLocation l_p3_p1 = src.translate(3, 1);
+        int d_p3_p1 = UNREACHABLE;
+        Direction f_p3_p1 = null;
+        if (rc.canSenseLocation(l_p3_p1) && rc.sensePassability(l_p3_p1)) {
+            if (d_p2_p0 < d_p3_p1) { d_p3_p1 = d_p2_p0; f_p3_p1 = f_p2_p0; }
+            if (d_p2_p1 < d_p3_p1) { d_p3_p1 = d_p2_p1; f_p3_p1 = f_p2_p1; }
+            if (d_p2_p2 < d_p3_p1) { d_p3_p1 = d_p2_p2; f_p3_p1 = f_p2_p2; }
+            if (d_p3_p0 < d_p3_p1) { d_p3_p1 = d_p3_p0; f_p3_p1 = f_p3_p0; }
+            d_p3_p1 += 1;
+        }
+        MapLocation l_p3_p2 = src.translate(3, 2);
+        int d_p3_p2 = UNREACHABLE;
+        Direction f_p3_p2 = null;
+        if (rc.canSenseLocation(l_p3_p2) && rc.sensePassability(l_p3_p2)) {
+            if (d_p2_p1 < d_p3_p2) { d_p3_p2 = d_p2_p1; f_p3_p2 = f_p2_p1; }
+            if (d_p2_p2 < d_p3_p2) { d_p3_p2 = d_p2_p2; f_p3_p2 = f_p2_p2; }
+            if (d_p3_p1 < d_p3_p2) { d_p3_p2 = d_p3_p1; f_p3_p2 = f_p3_p1; }
+            d_p3_p2 += 1;
+        }
+        MapLocation l_p3_p3 = src.translate(3, 3);
+        int d_p3_p3 = UNREACHABLE;
+        Direction f_p3_p3 = null;
+        if (rc.canSenseLocation(l_p3_p3) && rc.sensePassability(l_p3_p3)) {
+            if (d_p2_p2 < d_p3_p3) { d_p3_p3 = d_p2_p2; f_p3_p3 = f_p2_p2; }
+            if (d_p3_p2 < d_p3_p3) { d_p3_p3 = d_p3_p2; f_p3_p3 = f_p3_p2; }
+            d_p3_p3 += 1;
+        }
+        MapLocation l_p2_p3 = src.translate(2, 3);
+        int d_p2_p3 = UNREACHABLE;
+        Direction f_p2_p3 = null;
+        if (rc.canSenseLocation(l_p2_p3) && rc.sensePassability(l_p2_p3)) {
+            if (d_p2_p2 < d_p2_p3) { d_p2_p3 = d_p2_p2; f_p2_p3 = f_p2_p2; }
+            if (d_p1_p2 < d_p2_p3) { d_p2_p3 = d_p1_p2; f_p2_p3 = f_p1_p2; }
+            if (d_p3_p2 < d_p2_p3) { d_p2_p3 = d_p3_p2; f_p2_p3 = f_p3_p2; }
+            if (d_p3_p3 < d_p2_p3) { d_p2_p3 = d_p3_p3; f_p2_p3 = f_p3_p3; }
+            d_p2_p3 += 1;
+        }
+        MapLocation l_p1_p3 = src.translate(1, 3);
+        int d_p1_p3 = UNREACHABLE;
+        Direction f_p1_p3 = null;
+        if (rc.canSenseLocation(l_p1_p3) && rc.sensePassability(l_p1_p3)) {
+            if (d_p2_p2 < d_p1_p3) { d_p1_p3 = d_p2_p2; f_p1_p3 = f_p2_p2; }
+            if (d_p1_p2 < d_p1_p3) { d_p1_p3 = d_p1_p2; f_p1_p3 = f_p1_p2; }
+            if (d_p0_p2 < d_p1_p3) { d_p1_p3 = d_p0_p2; f_p1_p3 = f_p0_p2; }
+            if (d_p2_p3 < d_p1_p3) { d_p1_p3 = d_p2_p3; f_p1_p3 = f_p2_p3; }
+            d_p1_p3 += 1;
+        }
+        MapLocation l_p0_p3 = src.translate(0, 3);
+        int d_p0_p3 = UNREACHABLE;
+        Direction f_p0_p3 = null;
+        if (rc.canSenseLocation(l_p0_p3) && rc.sensePassability(l_p0_p3)) {
+            if (d_p1_p2 < d_p0_p3) { d_p0_p3 = d_p1_p2; f_p0_p3 = f_p1_p2; }
+            if (d_p0_p2 < d_p0_p3) { d_p0_p3 = d_p0_p2; f_p0_p3 = f_p0_p2; }
+            if (d_m1_p2 < d_p0_p3) { d_p0_p3 = d_m1_p2; f_p0_p3 = f_m1_p2; }
+            if (d_p1_p3 < d_p0_p3) { d_p0_p3 = d_p1_p3; f_p0_p3 = f_p1_p3; }
+            d_p0_p3 += 1;
+        }
+        MapLocation l_m1_p3 = src.translate(-1, 3);
+        int d_m1_p3 = UNREACHABLE;
+        Direction f_m1_p3 = null;
+        if (rc.canSenseLocation(l_m1_p3) && rc.sensePassability(l_m1_p3)) {
+            if (d_p0_p2 < d_m1_p3) { d_m1_p3 = d_p0_p2; f_m1_p3 = f_p0_p2; }
+            if (d_m1_p2 < d_m1_p3) { d_m1_p3 = d_m1_p2; f_m1_p3 = f_m1_p2; }
+            if (d_m2_p2 < d_m1_p3) { d_m1_p3 = d_m2_p2; f_m1_p3 = f_m2_p2; }
+            if (d_p0_p3 < d_m1_p3) { d_m1_p3 = d_p0_p3; f_m1_p3 = f_p0_p3; }
+            d_m1_p3 += 1;
+        }
+        MapLocation l_m2_p3 = src.translate(-2, 3);
+        int d_m2_p3 = UNREACHABLE;
+        Direction f_m2_p3 = null;
+        if (rc.canSenseLocation(l_m2_p3) && rc.sensePassability(l_m2_p3)) {
+            if (d_m1_p2 < d_m2_p3) { d_m2_p3 = d_m1_p2; f_m2_p3 = f_m1_p2; }
+            if (d_m2_p2 < d_m2_p3) { d_m2_p3 = d_m2_p2; f_m2_p3 = f_m2_p2; }
+            if (d_m1_p3 < d_m2_p3) { d_m2_p3 = d_m1_p3; f_m2_p3 = f_m1_p3; }
+            d_m2_p3 += 1;
+        }
+        MapLocation l_m3_p3 = src.translate(-3, 3);
+        int d_m3_p3 = UNREACHABLE;
+        Direction f_m3_p3 = null;
+        if (rc.canSenseLocation(l_m3_p3) && rc.sensePassability(l_m3_p3)) {
+            if (d_m2_p2 < d_m3_p3) { d_m3_p3 = d_m2_p2; f_m3_p3 = f_m2_p2; }
+            if (d_m2_p3 < d_m3_p3) { d_m3_p3 = d_m2_p3; f_m3_p3 = f_m2_p3; }
+            d_m3_p3 += 1;
+        }
+        MapLocation l_m3_p2 = src.translate(-3, 2);
+        int d_m3_p2 = UNREACHABLE;
+        Direction f_m3_p2 = null;
+        if (rc.canSenseLocation(l_m3_p2) && rc.sensePassability(l_m3_p2)) {
+            if (d_m2_p2 < d_m3_p2) { d_m3_p2 = d_m2_p2; f_m3_p2 = f_m2_p2; }
+            if (d_m2_p1 < d_m3_p2) { d_m3_p2 = d_m2_p1; f_m3_p2 = f_m2_p1; }
+            if (d_m2_p3 < d_m3_p2) { d_m3_p2 = d_m2_p3; f_m3_p2 = f_m2_p3; }
+            if (d_m3_p3 < d_m3_p2) { d_m3_p2 = d_m3_p3; f_m3_p2 = f_m3_p3; }
+            d_m3_p2 += 1;
+        }
+        MapLocation l_m3_p1 = src.translate(-3, 1);
+        int d_m3_p1 = UNREACHABLE;
+        Direction f_m3_p1 = null;
+        if (rc.canSenseLocation(l_m3_p1) && rc.sensePassability(l_m3_p1)) {
+            if (d_m2_p2 < d_m3_p1) { d_m3_p1 = d_m2_p2; f_m3_p1 = f_m2_p2; }
+            if (d_m2_p1 < d_m3_p1) { d_m3_p1 = d_m2_p1; f_m3_p1 = f_m2_p1; }
+            if (d_m2_p0 < d_m3_p1) { d_m3_p1 = d_m2_p0; f_m3_p1 = f_m2_p0; }
+            if (d_m3_p2 < d_m3_p1) { d_m3_p1 = d_m3_p2; f_m3_p1 = f_m3_p2; }
+            d_m3_p1 += 1;
+        }
+        MapLocation l_m3_p0 = src.translate(-3, 0);
+        int d_m3_p0 = UNREACHABLE;
+        Direction f_m3_p0 = null;
+        if (rc.canSenseLocation(l_m3_p0) && rc.sensePassability(l_m3_p0)) {
+            if (d_m2_m1 < d_m3_p0) { d_m3_p0 = d_m2_m1; f_m3_p0 = f_m2_m1; }
+            if (d_m2_p1 < d_m3_p0) { d_m3_p0 = d_m2_p1; f_m3_p0 = f_m2_p1; }
+            if (d_m2_p0 < d_m3_p0) { d_m3_p0 = d_m2_p0; f_m3_p0 = f_m2_p0; }
+            if (d_m3_m1 < d_m3_p0) { d_m3_p0 = d_m3_m1; f_m3_p0 = f_m3_m1; }
+            if (d_m3_p1 < d_m3_p0) { d_m3_p0 = d_m3_p1; f_m3_p0 = f_m3_p1; }
+            d_m3_p0 += 1;
+        }
+
+        // Ring 4
+        MapLocation l_m4_m1 = src.translate(-4, -1);
+        int d_m4_m1 = UNREACHABLE;
+        Direction f_m4_m1 = null;
+        if (rc.canSenseLocation(l_m4_m1) && rc.sensePassability(l_m4_m1)) {
+            if (d_m3_m1 < d_m4_m1) { d_m4_m1 = d_m3_m1; f_m4_m1 = f_m3_m1; }
+            if (d_m3_m2 < d_m4_m1) { d_m4_m1 = d_m3_m2; f_m4_m1 = f_m3_m2; }
+            if (d_m3_p0 < d_m4_m1) { d_m4_m1 = d_m3_p0; f_m4_m1 = f_m3_p0; }
+            d_m4_m1 += 1;
+        }
+        MapLocation l_m4_m2 = src.translate(-4, -2);
+        int d_m4_m2 = UNREACHABLE;
+        Direction f_m4_m2 = null;
+        if (rc.canSenseLocation(l_m4_m2) && rc.sensePassability(l_m4_m2)) {
+            if (d_m3_m1 < d_m4_m2) { d_m4_m2 = d_m3_m1; f_m4_m2 = f_m3_m1; }
+            if (d_m3_m2 < d_m4_m2) { d_m4_m2 = d_m3_m2; f_m4_m2 = f_m3_m2; }
+            if (d_m3_m3 < d_m4_m2) { d_m4_m2 = d_m3_m3; f_m4_m2 = f_m3_m3; }
+            if (d_m4_m1 < d_m4_m2) { d_m4_m2 = d_m4_m1; f_m4_m2 = f_m4_m1; }
+            d_m4_m2 += 1;
+        }
+        MapLocation l_m2_m4 = src.translate(-2, -4);
+        int d_m2_m4 = UNREACHABLE;
+        Direction f_m2_m4 = null;
+        if (rc.canSenseLocation(l_m2_m4) && rc.sensePassability(l_m2_m4)) {
+            if (d_m3_m3 < d_m2_m4) { d_m2_m4 = d_m3_m3; f_m2_m4 = f_m3_m3; }
+            if (d_m2_m3 < d_m2_m4) { d_m2_m4 = d_m2_m3; f_m2_m4 = f_m2_m3; }
+            if (d_m1_m3 < d_m2_m4) { d_m2_m4 = d_m1_m3; f_m2_m4 = f_m1_m3; }
+            d_m2_m4 += 1;
+        }
+        MapLocation l_m1_m4 = src.translate(-1, -4);
+        int d_m1_m4 = UNREACHABLE;
+        Direction f_m1_m4 = null;
+        if (rc.canSenseLocation(l_m1_m4) && rc.sensePassability(l_m1_m4)) {
+            if (d_m2_m3 < d_m1_m4) { d_m1_m4 = d_m2_m3; f_m1_m4 = f_m2_m3; }
+            if (d_m1_m3 < d_m1_m4) { d_m1_m4 = d_m1_m3; f_m1_m4 = f_m1_m3; }
+            if (d_p0_m3 < d_m1_m4) { d_m1_m4 = d_p0_m3; f_m1_m4 = f_p0_m3; }
+            if (d_m2_m4 < d_m1_m4) { d_m1_m4 = d_m2_m4; f_m1_m4 = f_m2_m4; }
+            d_m1_m4 += 1;
+        }
+        MapLocation l_p0_m4 = src.translate(0, -4);
+        int d_p0_m4 = UNREACHABLE;
+        Direction f_p0_m4 = null;
+        if (rc.canSenseLocation(l_p0_m4) && rc.sensePassability(l_p0_m4)) {
+            if (d_m1_m3 < d_p0_m4) { d_p0_m4 = d_m1_m3; f_p0_m4 = f_m1_m3; }
+            if (d_p0_m3 < d_p0_m4) { d_p0_m4 = d_p0_m3; f_p0_m4 = f_p0_m3; }
+            if (d_p1_m3 < d_p0_m4) { d_p0_m4 = d_p1_m3; f_p0_m4 = f_p1_m3; }
+            if (d_m1_m4 < d_p0_m4) { d_p0_m4 = d_m1_m4; f_p0_m4 = f_m1_m4; }
+            d_p0_m4 += 1;
+        }
+        MapLocation l_p1_m4 = src.translate(1, -4);
+        int d_p1_m4 = UNREACHABLE;
+        Direction f_p1_m4 = null;
+        if (rc.canSenseLocation(l_p1_m4) && rc.sensePassability(l_p1_m4)) {
+            if (d_p0_m3 < d_p1_m4) { d_p1_m4 = d_p0_m3; f_p1_m4 = f_p0_m3; }
+            if (d_p1_m3 < d_p1_m4) { d_p1_m4 = d_p1_m3; f_p1_m4 = f_p1_m3; }
+            if (d_p2_m3 < d_p1_m4) { d_p1_m4 = d_p2_m3; f_p1_m4 = f_p2_m3; }
+            if (d_p0_m4 < d_p1_m4) { d_p1_m4 = d_p0_m4; f_p1_m4 = f_p0_m4; }
+            d_p1_m4 += 1;
+        }
+        MapLocation l_p2_m4 = src.translate(2, -4);
+        int d_p2_m4 = UNREACHABLE;
+        Direction f_p2_m4 = null;
+        if (rc.canSenseLocation(l_p2_m4) && rc.sensePassability(l_p2_m4)) {
+            if (d_p1_m3 < d_p2_m4) { d_p2_m4 = d_p1_m3; f_p2_m4 = f_p1_m3; }
+            if (d_p2_m3 < d_p2_m4) { d_p2_m4 = d_p2_m3; f_p2_m4 = f_p2_m3; }
+            if (d_p3_m3 < d_p2_m4) { d_p2_m4 = d_p3_m3; f_p2_m4 = f_p3_m3; }
+            if (d_p1_m4 < d_p2_m4) { d_p2_m4 = d_p1_m4; f_p2_m4 = f_p1_m4; }
+            d_p2_m4 += 1;
+        }
+        MapLocation l_p4_m2 = src.translate(4, -2);
+        int d_p4_m2 = UNREACHABLE;
+        Direction f_p4_m2 = null;
+        if (rc.canSenseLocation(l_p4_m2) && rc.sensePassability(l_p4_m2)) {
+            if (d_p3_m3 < d_p4_m2) { d_p4_m2 = d_p3_m3; f_p4_m2 = f_p3_m3; }
+            if (d_p3_m2 < d_p4_m2) { d_p4_m2 = d_p3_m2; f_p4_m2 = f_p3_m2; }
+            if (d_p3_m1 < d_p4_m2) { d_p4_m2 = d_p3_m1; f_p4_m2 = f_p3_m1; }
+            d_p4_m2 += 1;
+        }
+        MapLocation l_p4_m1 = src.translate(4, -1);
+        int d_p4_m1 = UNREACHABLE;
+        Direction f_p4_m1 = null;
+        if (rc.canSenseLocation(l_p4_m1) && rc.sensePassability(l_p4_m1)) {
+            if (d_p3_m2 < d_p4_m1) { d_p4_m1 = d_p3_m2; f_p4_m1 = f_p3_m2; }
+            if (d_p3_m1 < d_p4_m1) { d_p4_m1 = d_p3_m1; f_p4_m1 = f_p3_m1; }
+            if (d_p3_p0 < d_p4_m1) { d_p4_m1 = d_p3_p0; f_p4_m1 = f_p3_p0; }
+            if (d_p4_m2 < d_p4_m1) { d_p4_m1 = d_p4_m2; f_p4_m1 = f_p4_m2; }
+            d_p4_m1 += 1;
+        }
+        MapLocation l_p4_p0 = src.translate(4, 0);
+        int d_p4_p0 = UNREACHABLE;
+        Direction f_p4_p0 = null;
+        if (rc.canSenseLocation(l_p4_p0) && rc.sensePassability(l_p4_p0)) {
+            if (d_p3_m1 < d_p4_p0) { d_p4_p0 = d_p3_m1; f_p4_p0 = f_p3_m1; }
+            if (d_p3_p0 < d_p4_p0) { d_p4_p0 = d_p3_p0; f_p4_p0 = f_p3_p0; }
+            if (d_p3_p1 < d_p4_p0) { d_p4_p0 = d_p3_p1; f_p4_p0 = f_p3_p1; }
+            if (d_p4_m1 < d_p4_p0) { d_p4_p0 = d_p4_m1; f_p4_p0 = f_p4_m1; }
+            d_p4_p0 += 1;
+        }
+        MapLocation l_p4_p1 = src.translate(4, 1);
+        int d_p4_p1 = UNREACHABLE;
+        Direction f_p4_p1 = null;
+        if (rc.canSenseLocation(l_p4_p1) && rc.sensePassability(l_p4_p1)) {
+            if (d_p3_p0 < d_p4_p1) { d_p4_p1 = d_p3_p0; f_p4_p1 = f_p3_p0; }
+            if (d_p3_p1 < d_p4_p1) { d_p4_p1 = d_p3_p1; f_p4_p1 = f_p3_p1; }
+            if (d_p3_p2 < d_p4_p1) { d_p4_p1 = d_p3_p2; f_p4_p1 = f_p3_p2; }
+            if (d_p4_p0 < d_p4_p1) { d_p4_p1 = d_p4_p0; f_p4_p1 = f_p4_p0; }
+            d_p4_p1 += 1;
+        }
+        MapLocation l_p4_p2 = src.translate(4, 2);
+        int d_p4_p2 = UNREACHABLE;
+        Direction f_p4_p2 = null;
+        if (rc.canSenseLocation(l_p4_p2) && rc.sensePassability(l_p4_p2)) {
+            if (d_p3_p1 < d_p4_p2) { d_p4_p2 = d_p3_p1; f_p4_p2 = f_p3_p1; }
+            if (d_p3_p2 < d_p4_p2) { d_p4_p2 = d_p3_p2; f_p4_p2 = f_p3_p2; }
+            if (d_p3_p3 < d_p4_p2) { d_p4_p2 = d_p3_p3; f_p4_p2 = f_p3_p3; }
+            if (d_p4_p1 < d_p4_p2) { d_p4_p2 = d_p4_p1; f_p4_p2 = f_p4_p1; }
+            d_p4_p2 += 1;
+        }
+        MapLocation l_p2_p4 = src.translate(2, 4);
+        int d_p2_p4 = UNREACHABLE;
+        Direction f_p2_p4 = null;
+        if (rc.canSenseLocation(l_p2_p4) && rc.sensePassability(l_p2_p4)) {
+            if (d_p3_p3 < d_p2_p4) { d_p2_p4 = d_p3_p3; f_p2_p4 = f_p3_p3; }
+            if (d_p2_p3 < d_p2_p4) { d_p2_p4 = d_p2_p3; f_p2_p4 = f_p2_p3; }
+            if (d_p1_p3 < d_p2_p4) { d_p2_p4 = d_p1_p3; f_p2_p4 = f_p1_p3; }
+            d_p2_p4 += 1;
+        }
+        MapLocation l_p1_p4 = src.translate(1, 4);
+        int d_p1_p4 = UNREACHABLE;
+        Direction f_p1_p4 = null;
+        if (rc.canSenseLocation(l_p1_p4) && rc.sensePassability(l_p1_p4)) {
+            if (d_p2_p3 < d_p1_p4) { d_p1_p4 = d_p2_p3; f_p1_p4 = f_p2_p3; }
+            if (d_p1_p3 < d_p1_p4) { d_p1_p4 = d_p1_p3; f_p1_p4 = f_p1_p3; }
+            if (d_p0_p3 < d_p1_p4) { d_p1_p4 = d_p0_p3; f_p1_p4 = f_p0_p3; }
+            if (d_p2_p4 < d_p1_p4) { d_p1_p4 = d_p2_p4; f_p1_p4 = f_p2_p4; }
+            d_p1_p4 += 1;
+        }
+        MapLocation l_p0_p4 = src.translate(0, 4);
+        int d_p0_p4 = UNREACHABLE;
+        Direction f_p0_p4 = null;
+        if (rc.canSenseLocation(l_p0_p4) && rc.sensePassability(l_p0_p4)) {
+            if (d_p1_p3 < d_p0_p4) { d_p0_p4 = d_p1_p3; f_p0_p4 = f_p1_p3; }
+            if (d_p0_p3 < d_p0_p4) { d_p0_p4 = d_p0_p3; f_p0_p4 = f_p0_p3; }
+            if (d_m1_p3 < d_p0_p4) { d_p0_p4 = d_m1_p3; f_p0_p4 = f_m1_p3; }
+            if (d_p1_p4 < d_p0_p4) { d_p0_p4 = d_p1_p4; f_p0_p4 = f_p1_p4; }
+            d_p0_p4 += 1;
+        }
+        MapLocation l_m1_p4 = src.translate(-1, 4);
+        int d_m1_p4 = UNREACHABLE;
+        Direction f_m1_p4 = null;
+        if (rc.canSenseLocation(l_m1_p4) && rc.sensePassability(l_m1_p4)) {
+            if (d_p0_p3 < d_m1_p4) { d_m1_p4 = d_p0_p3; f_m1_p4 = f_p0_p3; }
+            if (d_m1_p3 < d_m1_p4) { d_m1_p4 = d_m1_p3; f_m1_p4 = f_m1_p3; }
+            if (d_m2_p3 < d_m1_p4) { d_m1_p4 = d_m2_p3; f_m1_p4 = f_m2_p3; }
+            if (d_p0_p4 < d_m1_p4) { d_m1_p4 = d_p0_p4; f_m1_p4 = f_p0_p4; }
+            d_m1_p4 += 1;
+        }
+        MapLocation l_m2_p4 = src.translate(-2, 4);
+        int d_m2_p4 = UNREACHABLE;
+        Direction f_m2_p4 = null;
+        if (rc.canSenseLocation(l_m2_p4) && rc.sensePassability(l_m2_p4)) {
+            if (d_m1_p3 < d_m2_p4) { d_m2_p4 = d_m1_p3; f_m2_p4 = f_m1_p3; }
+            if (d_m2_p3 < d_m2_p4) { d_m2_p4 = d_m2_p3; f_m2_p4 = f_m2_p3; }
+            if (d_m3_p3 < d_m2_p4) { d_m2_p4 = d_m3_p3; f_m2_p4 = f_m3_p3; }
+            if (d_m1_p4 < d_m2_p4) { d_m2_p4 = d_m1_p4; f_m2_p4 = f_m1_p4; }
+            d_m2_p4 += 1;
+        }
+        MapLocation l_m4_p2 = src.translate(-4, 2);
+        int d_m4_p2 = UNREACHABLE;
+        Direction f_m4_p2 = null;
+        if (rc.canSenseLocation(l_m4_p2) && rc.sensePassability(l_m4_p2)) {
+            if (d_m3_p3 < d_m4_p2) { d_m4_p2 = d_m3_p3; f_m4_p2 = f_m3_p3; }
+            if (d_m3_p2 < d_m4_p2) { d_m4_p2 = d_m3_p2; f_m4_p2 = f_m3_p2; }
+            if (d_m3_p1 < d_m4_p2) { d_m4_p2 = d_m3_p1; f_m4_p2 = f_m3_p1; }
+            d_m4_p2 += 1;
+        }
+        MapLocation l_m4_p1 = src.translate(-4, 1);
+        int d_m4_p1 = UNREACHABLE;
+        Direction f_m4_p1 = null;
+        if (rc.canSenseLocation(l_m4_p1) && rc.sensePassability(l_m4_p1)) {
+            if (d_m3_p2 < d_m4_p1) { d_m4_p1 = d_m3_p2; f_m4_p1 = f_m3_p2; }
+            if (d_m3_p1 < d_m4_p1) { d_m4_p1 = d_m3_p1; f_m4_p1 = f_m3_p1; }
+            if (d_m3_p0 < d_m4_p1) { d_m4_p1 = d_m3_p0; f_m4_p1 = f_m3_p0; }
+            if (d_m4_p2 < d_m4_p1) { d_m4_p1 = d_m4_p2; f_m4_p1 = f_m4_p2; }
+            d_m4_p1 += 1;
+        }
+        MapLocation l_m4_p0 = src.translate(-4, 0);
+        int d_m4_p0 = UNREACHABLE;
+        Direction f_m4_p0 = null;
+        if (rc.canSenseLocation(l_m4_p0) && rc.sensePassability(l_m4_p0)) {
+            if (d_m3_m1 < d_m4_p0) { d_m4_p0 = d_m3_m1; f_m4_p0 = f_m3_m1; }
+            if (d_m3_p1 < d_m4_p0) { d_m4_p0 = d_m3_p1; f_m4_p0 = f_m3_p1; }
+            if (d_m3_p0 < d_m4_p0) { d_m4_p0 = d_m3_p0; f_m4_p0 = f_m3_p0; }
+            if (d_m4_m1 < d_m4_p0) { d_m4_p0 = d_m4_m1; f_m4_p0 = f_m4_m1; }
+            if (d_m4_p1 < d_m4_p0) { d_m4_p0 = d_m4_p1; f_m4_p0 = f_m4_p1; }
+            d_m4_p0 += 1;
+        }
+
+        // Pick the first step towards dst, if we found a path to it
+        int ox = dst.x - x;
+        int oy = dst.y - y;
+        if (ox >= -4 && ox <= 4 && oy >= -4 && oy <= 4 && ox*ox + oy*oy <= RADIUS_SQUARED) {
+            int d = UNREACHABLE;
+            Direction f = null;
+            switch ((ox + 4) * 9 + (oy + 4)) {
+                case 30: d = d_m1_m1; f = f_m1_m1; break;
+                case 39: d = d_p0_m1; f = f_p0_m1; break;
+                case 48: d = d_p1_m1; f = f_p1_m1; break;
+                case 49: d = d_p1_p0; f = f_p1_p0; break;
+                case 50: d = d_p1_p1; f = f_p1_p1; break;
+                case 41: d = d_p0_p1; f = f_p0_p1; break;
+                case 32: d = d_m1_p1; f = f_m1_p1; break;
+                case 31: d = d_m1_p0; f = f_m1_p0; break;
+                case 21: d = d_m2_m1; f = f_m2_m1; break;
+                case 20: d = d_m2_m2; f = f_m2_m2; break;
+                case 29: d = d_m1_m2; f = f_m1_m2; break;
+                case 38: d = d_p0_m2; f = f_p0_m2; break;
+                case 47: d = d_p1_m2; f = f_p1_m2; break;
+                case 56: d = d_p2_m2; f = f_p2_m2; break;
+                case 57: d = d_p2_m1; f = f_p2_m1; break;
+                case 58: d = d_p2_p0; f = f_p2_p0; break;
+                case 59: d = d_p2_p1; f = f_p2_p1; break;
+                case 60: d = d_p2_p2; f = f_p2_p2; break;
+                case 51: d = d_p1_p2; f = f_p1_p2; break;
+                case 42: d = d_p0_p2; f = f_p0_p2; break;
+                case 33: d = d_m1_p2; f = f_m1_p2; break;
+                case 24: d = d_m2_p2; f = f_m2_p2; break;
+                case 23: d = d_m2_p1; f = f_m2_p1; break;
+                case 22: d = d_m2_p0; f = f_m2_p0; break;
+                case 12: d = d_m3_m1; f = f_m3_m1; break;
+                case 11: d = d_m3_m2; f = f_m3_m2; break;
+                case 10: d = d_m3_m3; f = f_m3_m3; break;
+                case 19: d = d_m2_m3; f = f_m2_m3; break;
+                case 28: d = d_m1_m3; f = f_m1_m3; break;
+                case 37: d = d_p0_m3; f = f_p0_m3; break;
+                case 46: d = d_p1_m3; f = f_p1_m3; break;
+                case 55: d = d_p2_m3; f = f_p2_m3; break;
+                case 64: d = d_p3_m3; f = f_p3_m3; break;
+                case 65: d = d_p3_m2; f = f_p3_m2; break;
+                case 66: d = d_p3_m1; f = f_p3_m1; break;
+                case 67: d = d_p3_p0; f = f_p3_p0; break;
+                case 68: d = d_p3_p1; f = f_p3_p1; break;
+                case 69: d = d_p3_p2; f = f_p3_p2; break;
+                case 70: d = d_p3_p3; f = f_p3_p3; break;
+                case 61: d = d_p2_p3; f = f_p2_p3; break;
+                case 52: d = d_p1_p3; f = f_p1_p3; break;
+                case 43: d = d_p0_p3; f = f_p0_p3; break;
+                case 34: d = d_m1_p3; f = f_m1_p3; break;
+                case 25: d = d_m2_p3; f = f_m2_p3; break;
+                case 16: d = d_m3_p3; f = f_m3_p3; break;
+                case 15: d = d_m3_p2; f = f_m3_p2; break;
+                case 14: d = d_m3_p1; f = f_m3_p1; break;
+                case 13: d = d_m3_p0; f = f_m3_p0; break;
+                case 3: d = d_m4_m1; f = f_m4_m1; break;
+                case 2: d = d_m4_m2; f = f_m4_m2; break;
+                case 18: d = d_m2_m4; f = f_m2_m4; break;
+                case 27: d = d_m1_m4; f = f_m1_m4; break;
+                case 36: d = d_p0_m4; f = f_p0_m4; break;
+                case 45: d = d_p1_m4; f = f_p1_m4; break;
+                case 54: d = d_p2_m4; f = f_p2_m4; break;
+                case 74: d = d_p4_m2; f = f_p4_m2; break;
+                case 75: d = d_p4_m1; f = f_p4_m1; break;
+                case 76: d = d_p4_p0; f = f_p4_p0; break;
+                case 77: d = d_p4_p1; f = f_p4_p1; break;
+                case 78: d = d_p4_p2; f = f_p4_p2; break;
+                case 62: d = d_p2_p4; f = f_p2_p4; break;
+                case 53: d = d_p1_p4; f = f_p1_p4; break;
+                case 44: d = d_p0_p4; f = f_p0_p4; break;
+                case 35: d = d_m1_p4; f = f_m1_p4; break;
+                case 26: d = d_m2_p4; f = f_m2_p4; break;
+                case 6: d = d_m4_p2; f = f_m4_p2; break;
+                case 5: d = d_m4_p1; f = f_m4_p1; break;
+                case 4: d = d_m4_p0; f = f_m4_p0; break;
+                default: break;
+            }
+            // A tile in the searched area that we found no path to, e.g. an occupied tile next to us, is better
+            //  waited for than walked away from
+            waypoint = null;
+            return d < UNREACHABLE ? f : null;
+        }
+
+        // Otherwise head to the reachable tile on the edge of the searched area closest to dst
+        Direction best = null;
+        MapLocation bestLocation = null;
+        int bestScore = Integer.MAX_VALUE;
+        if (d_m3_m2 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m3_m2); if (score < bestScore) { bestScore = score; best = f_m3_m2; bestLocation = l_m3_m2; } }
+        if (d_m3_m3 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m3_m3); if (score < bestScore) { bestScore = score; best = f_m3_m3; bestLocation = l_m3_m3; } }
+        if (d_m2_m3 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m2_m3); if (score < bestScore) { bestScore = score; best = f_m2_m3; bestLocation = l_m2_m3; } }
+        if (d_p2_m3 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p2_m3); if (score < bestScore) { bestScore = score; best = f_p2_m3; bestLocation = l_p2_m3; } }
+        if (d_p3_m3 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p3_m3); if (score < bestScore) { bestScore = score; best = f_p3_m3; bestLocation = l_p3_m3; } }
+        if (d_p3_m2 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p3_m2); if (score < bestScore) { bestScore = score; best = f_p3_m2; bestLocation = l_p3_m2; } }
+        if (d_p3_p2 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p3_p2); if (score < bestScore) { bestScore = score; best = f_p3_p2; bestLocation = l_p3_p2; } }
+        if (d_p3_p3 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p3_p3); if (score < bestScore) { bestScore = score; best = f_p3_p3; bestLocation = l_p3_p3; } }
+        if (d_p2_p3 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p2_p3); if (score < bestScore) { bestScore = score; best = f_p2_p3; bestLocation = l_p2_p3; } }
+        if (d_m2_p3 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m2_p3); if (score < bestScore) { bestScore = score; best = f_m2_p3; bestLocation = l_m2_p3; } }
+        if (d_m3_p3 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m3_p3); if (score < bestScore) { bestScore = score; best = f_m3_p3; bestLocation = l_m3_p3; } }
+        if (d_m3_p2 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m3_p2); if (score < bestScore) { bestScore = score; best = f_m3_p2; bestLocation = l_m3_p2; } }
+        if (d_m4_m1 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m4_m1); if (score < bestScore) { bestScore = score; best = f_m4_m1; bestLocation = l_m4_m1; } }
+        if (d_m4_m2 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m4_m2); if (score < bestScore) { bestScore = score; best = f_m4_m2; bestLocation = l_m4_m2; } }
+        if (d_m2_m4 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m2_m4); if (score < bestScore) { bestScore = score; best = f_m2_m4; bestLocation = l_m2_m4; } }
+        if (d_m1_m4 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m1_m4); if (score < bestScore) { bestScore = score; best = f_m1_m4; bestLocation = l_m1_m4; } }
+        if (d_p0_m4 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p0_m4); if (score < bestScore) { bestScore = score; best = f_p0_m4; bestLocation = l_p0_m4; } }
+        if (d_p1_m4 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p1_m4); if (score < bestScore) { bestScore = score; best = f_p1_m4; bestLocation = l_p1_m4; } }
+        if (d_p2_m4 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p2_m4); if (score < bestScore) { bestScore = score; best = f_p2_m4; bestLocation = l_p2_m4; } }
+        if (d_p4_m2 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p4_m2); if (score < bestScore) { bestScore = score; best = f_p4_m2; bestLocation = l_p4_m2; } }
+        if (d_p4_m1 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p4_m1); if (score < bestScore) { bestScore = score; best = f_p4_m1; bestLocation = l_p4_m1; } }
+        if (d_p4_p0 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p4_p0); if (score < bestScore) { bestScore = score; best = f_p4_p0; bestLocation = l_p4_p0; } }
+        if (d_p4_p1 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p4_p1); if (score < bestScore) { bestScore = score; best = f_p4_p1; bestLocation = l_p4_p1; } }
+        if (d_p4_p2 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p4_p2); if (score < bestScore) { bestScore = score; best = f_p4_p2; bestLocation = l_p4_p2; } }
+        if (d_p2_p4 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p2_p4); if (score < bestScore) { bestScore = score; best = f_p2_p4; bestLocation = l_p2_p4; } }
+        if (d_p1_p4 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p1_p4); if (score < bestScore) { bestScore = score; best = f_p1_p4; bestLocation = l_p1_p4; } }
+        if (d_p0_p4 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_p0_p4); if (score < bestScore) { bestScore = score; best = f_p0_p4; bestLocation = l_p0_p4; } }
+        if (d_m1_p4 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m1_p4); if (score < bestScore) { bestScore = score; best = f_m1_p4; bestLocation = l_m1_p4; } }
+        if (d_m2_p4 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m2_p4); if (score < bestScore) { bestScore = score; best = f_m2_p4; bestLocation = l_m2_p4; } }
+        if (d_m4_p2 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m4_p2); if (score < bestScore) { bestScore = score; best = f_m4_p2; bestLocation = l_m4_p2; } }
+        if (d_m4_p1 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m4_p1); if (score < bestScore) { bestScore = score; best = f_m4_p1; bestLocation = l_m4_p1; } }
+        if (d_m4_p0 < UNREACHABLE) { int score = dst.distanceSquaredTo(l_m4_p0); if (score < bestScore) { bestScore = score; best = f_m4_p0; bestLocation = l_m4_p0; } }
+        waypoint = bestLocation;
+        return best;
+    }
+}
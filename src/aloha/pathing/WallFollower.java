@@ -3,6 +3,7 @@ import battlecode.common.Direction;
 import battlecode.common.GameActionException;
 import battlecode.common.MapLocation;
 import battlecode.common.RobotController;
+import aloha.utils.MapMemory;
 
 import java.util.Optional;
 
@@ -10,7 +11,7 @@ public abstract class WallFollower {
     private Direction lastDirectionFollowingWall = null;
 
     protected boolean isWall(MapLocation loc, RobotController rc) throws GameActionException {
-        return rc.canSenseLocation(loc) && !rc.sensePassability(loc);
+        return MapMemory.isWall(loc, rc);
     }
 
     protected Optional<Direction> getDirectionOfWallMovingRight(MapLocation src, MapLocation dst, RobotController rc) throws GameActionException {
@@ -6,21 +6,33 @@ import aloha.utils.*;
 import aloha.pathing.*;
 import aloha.robots.headquarters.HeadquartersState;
 import aloha.communication.*;
+import aloha.communication.basic.Decoding;
+import aloha.communication.basic.Encoding;
 import static aloha.RobotPlayer.OPPONENT;
 import static aloha.RobotPlayer.MY_TEAM;
+import static aloha.RobotPlayer.END_OF_TURN_BYTECODES;
 
 public class Carrier {
   private static CarrierState state = CarrierState.COLLECT_RESOURCE;
   private static final Communicator communicator = Communicator.newCommunicator();
   private static final PathFinder explorePathFinder = new ExplorePathFinder();
   private static final PathFinder fuzzyPathFinder = new FuzzyPathFinder();
+  // bfsPathFinder is used on the long trips between wells, headquarters and sky-islands, where walls get in the way.
+  private static final PathFinder bfsPathFinder = new BfsPathFinder();
   private static final Random rng = Utils.getRng();
+  // OUTBOX_CAPACITY is the number of uncommunicated messages we hold on to. When it's full, the least important
+  //  messages are dropped.
+  private static final int OUTBOX_CAPACITY = 16;
+  // messageBuffer is a reusable buffer for raw message encodings received from the communicator.
+  private static final int[] messageBuffer = new int[GameConstants.SHARED_ARRAY_LENGTH];
 
   // hqLoc is a cached data field of the HQ this robot belongs to.
   private static MapLocation hqLoc;
   // dst is a cached data field representing a destination location. The meaning
   //  of this field depends on the state this robot is in.
   private static MapLocation dst;
+  // leasedTile is the collection tile at dst we hold a lease on (see Leases), or null if we don't hold any.
+  private static MapLocation leasedTile;
   // resourceType is a cached data field representing the resource type that
   //  this robot is collecting or depositing.
   private static ResourceType resourceType;
@@ -32,40 +44,44 @@ public class Carrier {
   private static final Map<MapLocation, Boolean> knownManaWells = new HashMap<>();
   private static final Map<MapLocation, Boolean> knownAdmantiniumWells = new HashMap<>();
   private static final Map<MapLocation, Boolean> knownElixirWells = new HashMap<>();
-  // knownFriendlyIslands, knownNeutralIslands, and knownEnemyIslands are
-  //  cached fields representing known locations and indices of sky-islands, mapping to
-  //  a boolean describing if the sky-island was discovered via communication or not.
-  //  knownFriendlyIslands, knownNeutralIslands, and knownEnemyIslands may be
-  //  inaccurate over time, since islands can be taken over.
-  private static final Map<MapLocation, Boolean> knownFriendlyIslands = new HashMap<>();
-  private static final Map<MapLocation, Boolean> knownNeutralIslands = new HashMap<>();
-  private static final Map<MapLocation, Boolean> knownEnemyIslands = new HashMap<>();
-  // uncommunicatedWellInfoMessages contains the set of well info messages we were unable to
-  //  communicate, but would like to communicate.
-  private static Set<Message> uncommunicatedWellInfoMessages = new HashSet<>();
-  // uncommunicatedWellInfoMessages contains the set of well sky-island messages we were unable to
-  //  communicate, but would like to communicate.
-  private static Set<Message> uncommunicatedSkyIslandMessages = new HashSet<>();
-
-  // SKY_ISLAND_REGION_RADIUS represents the radius of a sky island region. We define regions
-  //  to avoid exploding the shared array and internal caches with sky-island locations.
-  private static int SKY_ISLAND_REGION_RADIUS = 72;
+  // dstIsland is the ID of the sky-island at dst while placing an anchor, or -1 if there's none. Known sky-islands
+  //  are kept in the island table (see Islands).
+  private static int dstIsland = -1;
+  // outbox contains the messages we were unable to communicate, but would like
+  //  to communicate, most important first.
+  private static final Outbox outbox = new Outbox(OUTBOX_CAPACITY);
 
   private static boolean advertisedWellLocationToLaunchers = false;
 
+  // HOT_WELL_DISTANCE_PENALTY is added to the squared distance to wells in sectors with recent enemy activity (see Heatmap),
+  //  so that carriers prefer a cooler well unless it's much farther away.
+  private static final int HOT_WELL_DISTANCE_PENALTY = 200;
+
+  // MAX_ANCHOR_WAIT is the number of rounds we wait at our HQ for an anchor to be built, before going back to collecting.
+  private static final int MAX_ANCHOR_WAIT = 20;
+  // anchorWaitRound is the round we started waiting for an anchor at our HQ.
+  private static int anchorWaitRound = 0;
+
+  // reportedEnemyHQLocations are the enemy HQ locations this carrier has queued for the shared array.
+  private static final Set<MapLocation> reportedEnemyHQLocations = new HashSet<>();
+
   public static void run(RobotController rc) throws GameActionException {
     switch(state) {
-      case TAKE_ANCHOR:       runTakeAnchor(rc);      senseLocalSkyIslands(null, rc); break;
+      case TAKE_ANCHOR:       runTakeAnchor(rc);      senseLocalSkyIslands(rc); break;
       case PLACE_ANCHOR:      runPlaceAnchor(rc);     break;
       case COLLECT_RESOURCE:  runCollectResource(rc); break;
-      case DEPOSIT_RESOURCE:  runDepositResource(rc); senseLocalSkyIslands(null, rc); break;
+      case DEPOSIT_RESOURCE:  runDepositResource(rc); senseLocalSkyIslands(rc); break;
       default:                throw new RuntimeException("should not be here");
     }
 
-    // At the end of our turn, try to communicate all of the messages we were not
+    // Let the launchers know about any enemy bases and attackers we come across
+    senseEnemies(rc);
+
+    // At the end of our turn, try to communicate the messages we were not
     //  able to send before. This is important because the local information we know
-    //  about could be valuable to the rest of the robots.
-    tryCommunicateAllUncommunicatedMessages(rc);
+    //  about could be valuable to the rest of the robots. Spend whatever bytecode is left this
+    //  turn, except for what's needed at the end of the turn.
+    outbox.flush(communicator, Clock.getBytecodesLeft() - END_OF_TURN_BYTECODES, rc);
   }
 
   private static void runCollectResource(RobotController rc) throws GameActionException {
@@ -100,14 +116,34 @@ public class Carrier {
 
     // TODO check that dst is still a location of our resource type, and reset it if necessary
 
+    // If enemies were recently seen around our well, look for a cooler one before we start collecting
+    if (dst != null && rc.getResourceAmount(resourceType) == 0 && Heatmap.isHot(dst, rc)) {
+      Leases.release(leasedTile, rc);
+      leasedTile = null;
+      dst = null;
+    }
+
+    // If other carriers claimed every collection tile at our well, or the lease table has no room for it, fall back to
+    //  the next best well
+    if (dst != null && leasedTile == null && rc.getResourceAmount(resourceType) == 0 && Leases.isSaturated(dst, rc)) {
+      dst = null;
+    }
+
     // If we don't already have a resource location to path to, try to identify one
     if (dst == null) {
       rc.setIndicatorString("collecting resources: " + resourceType + " no dst set " + Clock.getBytecodesLeft());
       // If we've cached any Mn, Ad, or Ex wells, path to the closest one
       Map<MapLocation, Boolean> knownWells = getKnownWellsFor(resourceType);
+      int closestDistance = 0;
       for (MapLocation loc: knownWells.keySet()) {
-        if (dst == null || myLocation.distanceSquaredTo(loc) < myLocation.distanceSquaredTo(dst)) {
+        if (Leases.isSaturated(loc, rc)) {
+          continue;
+        }
+
+        int distance = wellDistance(myLocation, loc, rc);
+        if (dst == null || distance < closestDistance) {
           dst = loc;
+          closestDistance = distance;
         }
       }
 
@@ -116,8 +152,12 @@ public class Carrier {
         rc.setIndicatorString("collecting resources: " + resourceType + " no cached resources " + Clock.getBytecodesLeft());
         WellInfo[] wellInfos = rc.senseNearbyWells();
         for (WellInfo wellInfo : wellInfos) {
-          if ((wellInfo.getResourceType() == resourceType) && (dst == null || myLocation.distanceSquaredTo(wellInfo.getMapLocation()) < myLocation.distanceSquaredTo(dst))) {
-            dst = wellInfo.getMapLocation();
+          if (wellInfo.getResourceType() == resourceType && !Leases.isSaturated(wellInfo.getMapLocation(), rc)) {
+            int distance = wellDistance(myLocation, wellInfo.getMapLocation(), rc);
+            if (dst == null || distance < closestDistance) {
+              dst = wellInfo.getMapLocation();
+              closestDistance = distance;
+            }
           }
 
          Map<MapLocation,Boolean> otherKnownWells = getKnownWellsFor(wellInfo.getResourceType());
@@ -127,6 +167,7 @@ public class Carrier {
           if (!otherKnownWells.containsKey(wellInfo.getMapLocation())) {
             otherKnownWells.put(wellInfo.getMapLocation(), false);
           }
+          Sectors.mark(Sectors.sectorOf(wellInfo.getMapLocation(), rc), Sectors.WELL, rc);
 
           // If we see a resource well, try to communicate the well info even if
           //  we don't collect from it, since other robots might want to collect from
@@ -140,10 +181,10 @@ public class Carrier {
           boolean alreadyCommunicated = otherKnownWells.getOrDefault(wellInfo.getMapLocation(), false);
           if (!alreadyCommunicated) {
             // If we couldn't communicate the message (possibly due to not being in range of HQ, or amplifier, or sky-island)
-            //  add it to a cached set of uncommunicated messages for retry later on.
+            //  add it to the outbox for retry later on.
             boolean success = communicateWellInfoMessage(wellInfoMessage, rc);
             if (!success) {
-              uncommunicatedWellInfoMessages.add(wellInfoMessage);
+              outbox.add(wellInfoMessage);
             }
           }
         }
@@ -152,15 +193,24 @@ public class Carrier {
       // No wells of our resourceType in sight. If we received some well messages for our resourceType, path to the closest one
       if (dst == null) {
         rc.setIndicatorString("collecting resources: " + resourceType + " no resources in sight " + Clock.getBytecodesLeft());
-        List<Message> messages = communicator.receiveMessages(getMessageTypeOf(resourceType), rc);
-        for (Message message : messages) {
-          if (dst == null || myLocation.distanceSquaredTo(message.loc) < myLocation.distanceSquaredTo(dst)) {
-            dst = message.loc;
+        int numMessages = communicator.receiveInto(getMessageTypeOf(resourceType), messageBuffer, rc);
+        for (int i = 0; i < numMessages; i++) {
+          MapLocation loc = Decoding.mapLocation(Decoding.locationMessageMapLocation(messageBuffer[i]));
+          if (Leases.isSaturated(loc, rc)) {
+            continue;
           }
 
+          int distance = wellDistance(myLocation, loc, rc);
+          if (dst == null || distance < closestDistance) {
+            dst = loc;
+            closestDistance = distance;
+          }
+        }
+        if (dst != null) {
           // Cache heard well location, for faster lookup next time
-          //  value is true because we discovered this well via communication.
-          knownWells.put(message.loc, true);
+          //  value is true because we discovered this well via communication. Only the chosen
+          //  well is cached, the rest stay in the shared array until we need them.
+          knownWells.put(dst, true);
         }
       }
 
@@ -177,7 +227,11 @@ public class Carrier {
       }
     }
 
-    rc.setIndicatorString("collecting resources: " + resourceType + " from " + dst);
+    // Claim a collection tile at our well, or renew the lease of the one we hold. Without a lease (e.g. when we
+    //  can't write to the shared array, or the well isn't registered yet) we still head to the well.
+    leasedTile = Leases.claim(dst, leasedTile, rc);
+
+    rc.setIndicatorString("collecting resources: " + resourceType + " from " + dst + " at " + leasedTile);
 
     if (!advertisedWellLocationToLaunchers) {
       Message messageToLauncher = Message.builder(getMessageTypeOf(resourceType))
@@ -186,7 +240,7 @@ public class Carrier {
         .build();
       boolean success = communicator.sendMessage(messageToLauncher, rc);
       if (!success) {
-        uncommunicatedWellInfoMessages.add(messageToLauncher);
+        outbox.add(messageToLauncher);
       }
       advertisedWellLocationToLaunchers = true;
     }
@@ -226,8 +280,8 @@ public class Carrier {
       return;
     }
 
-    // If we're not close enough to collect resources from the well, path closer to it
-    Optional<Direction> dir = fuzzyPathFinder.findPath(rc.getLocation(), dst, rc);
+    // If we're not close enough to collect resources from the well, path closer to it, preferably to our collection tile
+    Optional<Direction> dir = bfsPathFinder.findPath(rc.getLocation(), leasedTile != null ? leasedTile : dst, rc);
     if (dir.isPresent() && rc.canMove(dir.get())) {
       rc.move(dir.get());
       return;
@@ -246,15 +300,28 @@ public class Carrier {
     if (rc.canTransferResource(hqLoc, resourceType, resourceAmount)) {
       rc.transferResource(hqLoc, resourceType, resourceAmount);
 
+      // We're done with our well for this trip, so give up our collection tile
+      Leases.release(leasedTile, rc);
+      leasedTile = null;
+
       // If the HQ has an anchor, take it
       if (rc.canSenseRobotAtLocation(hqLoc)) {
         RobotInfo hqInfo = rc.senseRobotAtLocation(hqLoc);
         if (hqInfo.getNumAnchors(Anchor.STANDARD) > 0) {
           state = CarrierState.TAKE_ANCHOR;
+          anchorWaitRound = rc.getRoundNum();
           return;
         }
       }
 
+      // If there's a neutral sky-island to place an anchor on, and nobody is waiting for an anchor at our HQ yet,
+      //  wait for one. The HQ builds anchors for the carriers that wait for them.
+      if (AnchorDemand.demandOf(hqLoc, rc) == 0 && Islands.closest(Islands.NEUTRAL, rc.getLocation(), rc) != -1) {
+        state = CarrierState.TAKE_ANCHOR;
+        anchorWaitRound = rc.getRoundNum();
+        return;
+      }
+
       state = CarrierState.COLLECT_RESOURCE;
       // Reset resourceType and dst to collect different resourceTypes based
       //  on the next trip.
@@ -267,7 +334,7 @@ public class Carrier {
     //  our health is <= 3, we throw our resources at an enemy.
 
     // If we can't yet deposit the resources, move in the direction of the HQ.
-    Optional<Direction> dir = fuzzyPathFinder.findPath(rc.getLocation(), hqLoc, rc);
+    Optional<Direction> dir = bfsPathFinder.findPath(rc.getLocation(), hqLoc, rc);
     if (dir.isPresent() && rc.canMove(dir.get())) {
       rc.move(dir.get());
       return;
@@ -288,10 +355,12 @@ public class Carrier {
       return;
     }
 
-    // If the HQ does not have an anchor anymore, go to COLLECT_RESOURCES state
+    // If the HQ does not have an anchor, and we've waited long enough for one or there's no neutral sky-island
+    //  to place it on, go to COLLECT_RESOURCES state
     if (rc.canSenseRobotAtLocation(hqLoc)) {
       RobotInfo hqInfo = rc.senseRobotAtLocation(hqLoc);
-      if (hqInfo.getNumAnchors(Anchor.STANDARD) == 0) {
+      if (hqInfo.getNumAnchors(Anchor.STANDARD) == 0
+          && (rc.getRoundNum() - anchorWaitRound >= MAX_ANCHOR_WAIT || Islands.closest(Islands.NEUTRAL, rc.getLocation(), rc) == -1)) {
         state = CarrierState.COLLECT_RESOURCE;
         // Reset resourceType and dst to collect different resourceTypes based
         //  on the next trip.
@@ -301,6 +370,9 @@ public class Carrier {
       }
     }
 
+    // Let the HQ know we're waiting for an anchor. Once we have one we stop adding ourselves to the demand.
+    AnchorDemand.increment(hqLoc, rc);
+
     // Try to take an anchor from the HQ, and move to PLACE_ANCHOR state
     rc.setIndicatorString("trying to take an anchor from " + hqLoc);
     if (rc.canTakeAnchor(hqLoc, Anchor.STANDARD)) {
@@ -314,7 +386,7 @@ public class Carrier {
     rc.setIndicatorLine(rc.getLocation(), hqLoc, 100, 0, 0);
 
     // If we can't yet take the anchor, move in the direction of the HQ.
-    Optional<Direction> dir = fuzzyPathFinder.findPath(rc.getLocation(), hqLoc, rc);
+    Optional<Direction> dir = bfsPathFinder.findPath(rc.getLocation(), hqLoc, rc);
     if (dir.isPresent() && rc.canMove(dir.get())) {
       rc.move(dir.get());
     }
@@ -325,85 +397,22 @@ public class Carrier {
 
     rc.setIndicatorString("trying to place anchor");
 
-    // If we have a dst but it's no longer neutral, reset dst and remove the neutral island from the cache.
-    //  Also, try to send a message out for that destination so that other carriers don't path to this dst.
-    if (dst != null) {
-      // If we can see the dst and its no longer neutral, reset
-      if (rc.canSenseLocation(dst)) {
-        int islandIdx = rc.senseIsland(dst);
-        Team islandOwner = rc.senseTeamOccupyingIsland(islandIdx);
-        if (islandOwner != Team.NEUTRAL) {
-          // Update our local caches
-          knownNeutralIslands.remove(dst);
-          addKnownIslands(islandOwner, dst, false);
-          communicateKnownIsland(islandOwner, dst, rc);
-          dst = null;
-        }
-      }
+    // Keep the island table up to date with the sky-islands around us, including the one at our dst
+    senseLocalSkyIslands(rc);
 
-      // If we receive a message that the dst belongs to an enemy, reset it.
-      if (dst != null) {
-        List<Message> messages = communicator.receiveMessages(MessageType.ENEMY_ISLAND_LOC, rc);
-        for (Message message : messages) {
-          if (message.loc.equals(dst)) {
-            // Update our local caches
-            knownEnemyIslands.remove(dst);
-            addKnownIslandsAndCommunicate(OPPONENT, dst, rc, true);
-            dst = null;
-          }
-        }
-      }
-
-      // If we receive a message that the dst already belongs to us, reset it.
-      if (dst != null) {
-        List<Message> messages = communicator.receiveMessages(MessageType.FRIENDLY_ISLAND_LOC, rc);
-        for (Message message : messages) {
-          if (message.loc.equals(dst)) {
-            // Update our local caches
-            knownFriendlyIslands.remove(dst);
-            addKnownIslandsAndCommunicate(MY_TEAM, dst, rc, true);
-            dst = null;
-          }
-        }
-      }
+    // If we have a dst but it's no longer neutral, reset it. If we can't see the dst, the island table has
+    //  whatever other robots saw.
+    if (dst != null && (dstIsland == -1 || Islands.ownerOf(dstIsland, rc) != Islands.NEUTRAL)) {
+      dst = null;
+      dstIsland = -1;
     }
 
     // If we don't already have a neutral sky-island to path to, try to identify one
     if (dst == null) {
-      // If we've cached any sky-island locations, path to the closest one
-      for (MapLocation loc: knownNeutralIslands.keySet()) {
-        if (dst == null || myLocation.distanceSquaredTo(loc) < myLocation.distanceSquaredTo(dst)) {
-          dst = loc;
-        }
-      }
-
-      // No cached sky-islands to path to. If we see any neutral islands in sight, path to the closest one
-      if (dst == null) {
-        dst = senseLocalSkyIslands(Team.NEUTRAL, rc);
-      }
-
-      // No sky-islands in sight. If we received some messages for neutral sky islands, path to the closest one.
-      if (dst == null) {
-        List<Message> messages = communicator.receiveMessages(MessageType.NEUTRAL_ISLAND_LOC, rc);
-        for (Message message : messages) {
-          if (dst == null || myLocation.distanceSquaredTo(message.loc) < myLocation.distanceSquaredTo(dst)) {
-            dst = message.loc;
-          }
-
-          // Cache seen sky-island location, for faster lookup next time
-          //  value is true because we discovered this sky-island via communication.
-          //  to avoid blowing up the cached map, verify that no other island locations are close to the loc.
-          boolean existingIsland = false;
-          for (MapLocation knownLoc : knownNeutralIslands.keySet()) {
-            if (message.loc.distanceSquaredTo(knownLoc) <= SKY_ISLAND_REGION_RADIUS) {
-              existingIsland = true;
-              break;
-            }
-          }
-          if (!existingIsland) {
-            knownNeutralIslands.put(message.loc, true);
-          }
-        }
+      // If we know of any neutral sky-islands, seen by us or by other robots, path to the closest one
+      dstIsland = Islands.closest(Islands.NEUTRAL, myLocation, rc);
+      if (dstIsland != -1) {
+        dst = Islands.locationOf(dstIsland, rc);
       }
 
       // No sky-islands identified. Explore for islands.
@@ -427,37 +436,30 @@ public class Carrier {
       //  on the next trip.
       resourceType = null;
       dst = null;
+      dstIsland = -1;
       return;
     }
 
     rc.setIndicatorLine(rc.getLocation(), dst, 100, 0, 0);
     // if we have a dst but can't yet place the anchor, move in the direction of the sky-island
-    Optional<Direction> dir = fuzzyPathFinder.findPath(rc.getLocation(), dst, rc);
+    Optional<Direction> dir = bfsPathFinder.findPath(rc.getLocation(), dst, rc);
     if (dir.isPresent() && rc.canMove(dir.get())) {
       rc.move(dir.get());
     }
   }
 
-  // senseLocalSkyIslands senses the sky islands around this robot, and returns
-  //  the closest sky island location owned by the given team, if any.
-  private static MapLocation senseLocalSkyIslands(Team team, RobotController rc) throws GameActionException {
-    MapLocation myLocation = rc.getLocation();
-    MapLocation ret = null;
-
+  // senseLocalSkyIslands senses the sky islands around this robot, and records them in the island table.
+  private static void senseLocalSkyIslands(RobotController rc) throws GameActionException {
     int[] nearbyIslands = rc.senseNearbyIslands();
     for (int nearbyIsland : nearbyIslands) {
       MapLocation loc = rc.senseNearbyIslandLocations(nearbyIsland)[0];
       Team islandOwner = rc.senseTeamOccupyingIsland(nearbyIsland);
 
-      // If the island is owned by the given team, update the returned MapLocation.
-      if (islandOwner == team && (ret == null || myLocation.distanceSquaredTo(loc) < myLocation.distanceSquaredTo(ret))) {
-        ret = loc;
-      }
-
-      addKnownIslandsAndCommunicate(islandOwner, loc, rc, false);
+      // Keep the location we already know of, so the island table has a single location per island
+      MapLocation knownLoc = Islands.locationOf(nearbyIsland, rc);
+      Islands.update(nearbyIsland, knownLoc != null ? knownLoc : loc, islandOwner, rc);
+      Sectors.mark(Sectors.sectorOf(loc, rc), Sectors.ISLAND, rc);
     }
-
-    return ret;
   }
 
   private static void runAttackLoc(RobotController rc) throws GameActionException {
@@ -516,103 +518,59 @@ public class Carrier {
     }
   }
 
-  // getHQLoc gets the HQ location to associate to this robot.
-  private static MapLocation getHQLoc(RobotController rc) throws GameActionException {
-    // Try to find HQs within the current vision
-    RobotInfo[] robotInfos = rc.senseNearbyRobots();
-    for (RobotInfo robotInfo : robotInfos) {
-      if (robotInfo.type == RobotType.HEADQUARTERS) {
-        return robotInfo.location;
+  // senseEnemies queues the locations of enemy HQs in sight that we haven't reported yet, and adds heat
+  //  to the sector of the closest enemy attacker in sight.
+  private static void senseEnemies(RobotController rc) throws GameActionException {
+    MapLocation myLocation = rc.getLocation();
+    RobotInfo[] enemies = rc.senseNearbyRobots(RobotType.CARRIER.visionRadiusSquared, OPPONENT);
+    RobotInfo closestAttacker = null;
+    for (RobotInfo enemy : enemies) {
+      if (enemy.type == RobotType.LAUNCHER || enemy.type == RobotType.DESTABILIZER) {
+        if (closestAttacker == null || myLocation.distanceSquaredTo(enemy.location) < myLocation.distanceSquaredTo(closestAttacker.location)) {
+          closestAttacker = enemy;
+        }
       }
-    }
-
-    // No HQs within vision. Get HQ locations from messages.
-    List<Message> messages = communicator.receiveMessages(MessageType.HQ_STATE, rc);
-    return messages.get(0).loc;
-  }
-
-  private static void tryCommunicateAllUncommunicatedMessages(RobotController rc) throws GameActionException {
-    // Try to communicate well info and sky-island messages
-    tryCommunicateAllUncommunicatedWellInfoMessages(rc);
-    tryCommunicateAllUncommunicatedSkyIslandMessages(rc);
-  }
-
-  private static void tryCommunicateAllUncommunicatedSkyIslandMessages(RobotController rc) throws GameActionException {
-    // If we can't communicate at all, do nothing.
-    if (!rc.canWriteSharedArray(0, 0)) {
-      return;
-    }
-
-    // If we don't have any uncommunicated messages, do nothing.
-    if (uncommunicatedSkyIslandMessages.size() == 0) {
-      return;
-    }
 
-    // Try to send all of our messages
-    Set<Message> sentMessages = new HashSet<>();
-    for (Message message : uncommunicatedSkyIslandMessages) {
-      // If we're about to run out of bytecode, stop communicating messages
-      if (Clock.getBytecodesLeft() <= 1500) {
-        break;
+      if (enemy.type != RobotType.HEADQUARTERS || reportedEnemyHQLocations.contains(enemy.location)) {
+        continue;
       }
 
-      boolean success = communicateSkyIslandMessage(message, rc);
-      if (success) {
-        sentMessages.add(message);
-      }
+      Message enemyHQMessage = Message.builder(MessageType.ENEMY_HQ_LOC)
+        .recipient(Entity.ALL_ROBOTS)
+        .loc(enemy.location)
+        .build();
+      outbox.add(enemyHQMessage);
+      reportedEnemyHQLocations.add(enemy.location);
     }
 
-    // Remove sent messages from the uncommunicated set
-    for (Message message : sentMessages) {
-      uncommunicatedSkyIslandMessages.remove(message);
+    if (closestAttacker != null) {
+      Heatmap.add(closestAttacker.location, rc);
     }
   }
 
-  private static void tryCommunicateAllUncommunicatedWellInfoMessages(RobotController rc) throws GameActionException {
-    // If we can't communicate at all, do nothing.
-    if (!rc.canWriteSharedArray(0, 0)) {
-      return;
-    }
-
-    // If we don't have any uncommunicated messages, do nothing.
-    if (uncommunicatedWellInfoMessages.size() == 0) {
-      return;
-    }
-
-    // Try to send all of our messages
-    Set<Message> sentMessages = new HashSet<>();
-    for (Message message : uncommunicatedWellInfoMessages) {
-      // If we're about to run out of bytecode, stop communicating messages
-      if (Clock.getBytecodesLeft() <= 1500) {
-        break;
-      }
-
-      boolean success = communicateWellInfoMessage(message, rc);
-      if (success) {
-        sentMessages.add(message);
+  // getHQLoc gets the HQ location to associate to this robot.
+  private static MapLocation getHQLoc(RobotController rc) throws GameActionException {
+    // Try to find HQs within the current vision
+    RobotInfo[] robotInfos = rc.senseNearbyRobots();
+    for (RobotInfo robotInfo : robotInfos) {
+      if (robotInfo.type == RobotType.HEADQUARTERS) {
+        return robotInfo.location;
       }
     }
 
-    // Remove sent messages from the uncommunicated set
-    for (Message message : sentMessages) {
-      uncommunicatedWellInfoMessages.remove(message);
-    }
+    // No HQs within vision. Get HQ locations from messages.
+    communicator.receiveInto(MessageType.HQ_STATE, messageBuffer, rc);
+    return Decoding.mapLocation(Decoding.hqStateMessageMapLocation(messageBuffer[0]));
   }
 
-  private static boolean communicateSkyIslandMessage(Message skyIslandMessage, RobotController rc) throws GameActionException {
-    // If a sky-island of this type was already communicated in close proximity to the given island, do not communicate this island.
-    Map<MapLocation, Boolean> knownIslands = getKnownIslandsFor(getTeamOf(skyIslandMessage.messageType));
-    for (Map.Entry<MapLocation, Boolean> entry : knownIslands.entrySet()) {
-      MapLocation loc = entry.getKey();
-      boolean isCommunicated = entry.getValue();
-      if (isCommunicated && skyIslandMessage.loc.distanceSquaredTo(loc) <= SKY_ISLAND_REGION_RADIUS) {
-        // softly return true, to prevent re-communication of this message
-        return true;
-      }
+  // wellDistance is the squared distance to the given well, penalized if the well is in a sector with recent enemy activity.
+  private static int wellDistance(MapLocation myLocation, MapLocation wellLocation, RobotController rc) throws GameActionException {
+    int distance = myLocation.distanceSquaredTo(wellLocation);
+    if (Heatmap.isHot(wellLocation, rc)) {
+      distance += HOT_WELL_DISTANCE_PENALTY;
     }
 
-    // No sky-island was already communicated that's similar to this sky-island. Try to communicate it.
-    return communicator.sendMessage(skyIslandMessage, rc);
+    return distance;
   }
 
   private static boolean communicateWellInfoMessage(Message wellInfoMessage, RobotController rc) throws GameActionException {
@@ -628,7 +586,8 @@ public class Carrier {
       }
     }
 
-    // No well was already communicated that's similar to this well. Try to communicate it.
+    // No well was already communicated that's similar to this well. Try to communicate it. If another robot on our
+    //  team already registered it, the registry doesn't write it again.
     boolean success = communicator.sendMessage(wellInfoMessage, rc);
     if (success) {
       // Cache the location as communicated
@@ -646,18 +605,6 @@ public class Carrier {
     }
   }
 
-  private static MessageType getMessageTypeOf(Team team)  {
-    if (team.equals(Team.NEUTRAL)) {
-      return MessageType.NEUTRAL_ISLAND_LOC;
-    } else if (team.equals(OPPONENT)) {
-      return MessageType.ENEMY_ISLAND_LOC;
-    } else if (team.equals(MY_TEAM)) {
-      return MessageType.FRIENDLY_ISLAND_LOC;
-    } else {
-      throw new RuntimeException("Should not be here");
-    }
-  }
-
   private static ResourceType getResourceTypeOf(MessageType messageType)  {
     switch(messageType) {
       case AD_WELL_LOC:  return ResourceType.ADAMANTIUM;
@@ -667,15 +614,6 @@ public class Carrier {
     }
   }
 
-  private static Team getTeamOf(MessageType messageType)  {
-    switch(messageType) {
-      case NEUTRAL_ISLAND_LOC:  return Team.NEUTRAL;
-      case ENEMY_ISLAND_LOC:    return OPPONENT;
-      case FRIENDLY_ISLAND_LOC: return MY_TEAM;
-      default:                  throw new RuntimeException("should not be here");
-    }
-  }
-
   private static Map<MapLocation, Boolean> getKnownWellsFor(ResourceType resourceType) {
     switch(resourceType) {
       case ADAMANTIUM:  return knownAdmantiniumWells;
@@ -684,59 +622,4 @@ public class Carrier {
       default:          throw new RuntimeException("Should not be here");
     }
   }
-
-  private static Map<MapLocation, Boolean> getKnownIslandsFor(Team team) {
-    if (team.equals(Team.NEUTRAL)) {
-      return knownNeutralIslands;
-    } else if (team.equals(OPPONENT)) {
-      return knownEnemyIslands;
-    } else if (team.equals(MY_TEAM)) {
-      return knownFriendlyIslands;
-    } else {
-      throw new RuntimeException("Should not be here");
-    }
-  }
-
-  private static boolean addKnownIslands(Team islandOwner, MapLocation loc, boolean isCommunicated) throws GameActionException {
-    // Cache island locations.
-    //  value is false because we discovered this sky-island via sight, not communication.
-    //  to avoid blowing up the cached map, verify that no other island locations are close to the loc.
-    Map<MapLocation, Boolean> knownIslands = getKnownIslandsFor(islandOwner);
-    boolean existingIsland = false;
-    for (MapLocation knownLoc : knownIslands.keySet()) {
-      if (loc.distanceSquaredTo(knownLoc) <= SKY_ISLAND_REGION_RADIUS) {
-        existingIsland = true;
-        break;
-      }
-    }
-
-    if (!existingIsland) {
-      knownIslands.put(loc, isCommunicated);
-    }
-
-    return existingIsland;
-  }
-
-  private static void addKnownIslandsAndCommunicate(Team islandOwner, MapLocation loc, RobotController rc, boolean isCommunicated) throws GameActionException {
-    boolean existingIsland = addKnownIslands(islandOwner, loc, isCommunicated);
-
-    if (!existingIsland) {
-      communicateKnownIsland(islandOwner, loc, rc);
-    }
-  }
-
-  private static void communicateKnownIsland(Team islandOwner, MapLocation loc, RobotController rc) throws GameActionException {
-    // TODO communicate sky island to amplifiers and launchers too. May need to read their messages too, to avoid blowup?
-    // Try to communicate the neutral island location
-    Message skyIslandMessage = Message.builder(getMessageTypeOf(islandOwner))
-      .recipient(Entity.CARRIERS)
-      .loc(loc)
-      .build();
-    // If we couldn't communicate the message (possibly due to not being in range of HQ, or amplifier, or sky-island)
-    //  add it to a cached set of uncommunicated messages for retry later on.
-    boolean success = communicateSkyIslandMessage(skyIslandMessage, rc);
-    if (!success) {
-      uncommunicatedSkyIslandMessages.add(skyIslandMessage);
-    }
-  }
 }
@@ -12,10 +12,32 @@ public class Headquarters {
   private static final Communicator communicator = Communicator.newCommunicator();
   private static final Random rng = Utils.getRng();
 
-  private static int buildAnchorCooldown = 0;
-  private static int consectiveTurnsWithoutCarriers = 0;
+  // anchorDemand is the number of carriers that waited for an anchor from us since our last turn (see AnchorDemand).
+  private static int anchorDemand = 0;
+
+  // ENEMY_ALERT_COOLDOWN is the minimum number of rounds between two alerts of enemies near this headquarters.
+  private static final int ENEMY_ALERT_COOLDOWN = 5;
+  private static int lastEnemyAlertRound = -ENEMY_ALERT_COOLDOWN;
+
+  // MIN_COMPACT_BYTECODES is the number of bytecodes that must be left in our turn to compact the shared array.
+  private static final int MIN_COMPACT_BYTECODES = 5000;
+
+  // MIN_CARRIERS is the number of carriers the team wants alive before building any launchers.
+  private static final int MIN_CARRIERS = 8;
+  // CARRIERS_PER_LAUNCHER is the number of carriers the team wants alive for every launcher alive, past MIN_CARRIERS.
+  private static final int CARRIERS_PER_LAUNCHER = 2;
 
   public static void run(RobotController rc) throws GameActionException {
+    // at the start of each turn, reset the census of this round, do our share of cooling down the heatmap,
+    //  clear the expired leases of well collection tiles, last round's focus targets and the expired frontier claims,
+    //  and collect the demand for anchors
+    Census.reset(rc);
+    Heatmap.decay(rc);
+    Leases.expire(rc);
+    FocusTargets.reset(rc);
+    FrontierClaims.expire(rc);
+    anchorDemand = AnchorDemand.collect(rc);
+
     switch(state) {
       case BUILD_ANCHOR:    runBuildAnchor(rc);    break;
       case BUILD_CARRIER:   runBuildCarrier(rc);   break;
@@ -30,6 +52,44 @@ public class Headquarters {
       .loc(rc.getLocation())
       .build();
     communicator.sendMessage(message, rc);
+
+    // alert all robots of enemies near this headquarters
+    alertEnemies(rc);
+
+    // spend some of our spare bytecode on clearing useless messages out of the shared array
+    if (Clock.getBytecodesLeft() > MIN_COMPACT_BYTECODES) {
+      communicator.compact(rc);
+    }
+  }
+
+  private static void alertEnemies(RobotController rc) throws GameActionException {
+    if (rc.getRoundNum() - lastEnemyAlertRound < ENEMY_ALERT_COOLDOWN) {
+      return;
+    }
+
+    // Find the enemy closest to us. Enemy headquarters can't move or attack, so they're not worth an alert.
+    MapLocation myLocation = rc.getLocation();
+    RobotInfo[] enemies = rc.senseNearbyRobots(RobotType.HEADQUARTERS.visionRadiusSquared, OPPONENT);
+    RobotInfo closestEnemy = null;
+    for (RobotInfo enemy : enemies) {
+      if (enemy.type != RobotType.HEADQUARTERS && (closestEnemy == null || myLocation.distanceSquaredTo(enemy.location) < myLocation.distanceSquaredTo(closestEnemy.location))) {
+        closestEnemy = enemy;
+      }
+    }
+    if (closestEnemy == null) {
+      return;
+    }
+    Sectors.mark(Sectors.sectorOf(closestEnemy.location, rc), Sectors.ENEMY, rc);
+    Heatmap.add(closestEnemy.location, rc);
+
+    // A single write to the broadcast range reaches every robot
+    Message message = Message.builder(MessageType.ENEMY_LOC)
+      .recipient(Entity.ALL_ROBOTS)
+      .loc(closestEnemy.location)
+      .build();
+    if (communicator.sendMessage(message, rc)) {
+      lastEnemyAlertRound = rc.getRoundNum();
+    }
   }
 
   public static void runBuildAmplifier(RobotController rc) throws GameActionException {
@@ -38,29 +98,15 @@ public class Headquarters {
     if (rc.canBuildAnchor(Anchor.STANDARD)) {
         rc.buildAnchor(Anchor.STANDARD);
         state = HeadquartersState.BUILD_CARRIER;
-        buildAnchorCooldown = 100;
     }
 
     return;
   }
 
   public static void runBuildAnchor(RobotController rc) throws GameActionException {
-    rc.setIndicatorString("building anchor");
-    // If we haven't seen a carrier for a while, go to build carrier state
-    RobotInfo[] robotInfos = rc.senseNearbyRobots(2, MY_TEAM);
-    boolean isCarrierNextToUs = false;
-    for (RobotInfo robotInfo : robotInfos) {
-      if (robotInfo.type == RobotType.CARRIER) {
-        isCarrierNextToUs = true;
-        break;
-      }
-    }
-    if (!isCarrierNextToUs) {
-      consectiveTurnsWithoutCarriers++;
-    } else {
-      consectiveTurnsWithoutCarriers = 0;
-    }
-    if (consectiveTurnsWithoutCarriers >= 20) {
+    rc.setIndicatorString("building anchor for " + anchorDemand + " carriers");
+    // If every waiting carrier can already take an anchor, go to build carrier state
+    if (!needsAnchors(rc)) {
       state = HeadquartersState.BUILD_CARRIER;
       return;
     }
@@ -69,7 +115,6 @@ public class Headquarters {
     if (rc.canBuildAnchor(Anchor.STANDARD)) {
         rc.buildAnchor(Anchor.STANDARD);
         state = HeadquartersState.BUILD_CARRIER;
-        buildAnchorCooldown = 100;
     }
 
     return;
@@ -78,18 +123,17 @@ public class Headquarters {
   public static void runBuildCarrier(RobotController rc) throws GameActionException {
     rc.setIndicatorString("building carrier");
 
-    // wait for some time before building an anchor again
-    if (buildAnchorCooldown == 0) {
-      // if there are carriers next to us after cooling down, we assume they are waiting for an anchor. Move to BUILD_ANCHOR state.
-      RobotInfo[] robotInfos = rc.senseNearbyRobots(2, MY_TEAM);
-      for (RobotInfo robotInfo : robotInfos) {
-        if (robotInfo.type == RobotType.CARRIER) {
-          state = HeadquartersState.BUILD_ANCHOR;
-          return;
-        }
-      }
-    } else if (buildAnchorCooldown > 0) {
-      buildAnchorCooldown -= 1;
+    // If more carriers are waiting for an anchor than we have anchors, move to BUILD_ANCHOR state.
+    if (needsAnchors(rc)) {
+      state = HeadquartersState.BUILD_ANCHOR;
+      return;
+    }
+
+    // If there are already enough carriers alive, build launchers instead
+    if (!needsCarriers(rc) && rc.getResourceAmount(ResourceType.MANA) >= 60) {
+      state = HeadquartersState.BUILD_LAUNCHER;
+      runBuildLauncher(rc);
+      return;
     }
 
     // Try to build some carriers
@@ -122,8 +166,8 @@ public class Headquarters {
     if (rc.canBuildRobot(RobotType.LAUNCHER, newLoc)) {
         rc.buildRobot(RobotType.LAUNCHER, newLoc);
 
-        // If we have enough admantinium, build carriers
-        if (rc.getResourceAmount(ResourceType.ADAMANTIUM) >= 50) {
+        // If we have enough admantinium and there aren't enough carriers alive, build carriers
+        if (rc.getResourceAmount(ResourceType.ADAMANTIUM) >= 50 && needsCarriers(rc)) {
           state = HeadquartersState.BUILD_CARRIER;
           return;
         }
@@ -131,4 +175,16 @@ public class Headquarters {
         return;
     }
   }
+
+  // needsAnchors returns true if more carriers are waiting for an anchor from us than we have anchors.
+  private static boolean needsAnchors(RobotController rc) throws GameActionException {
+    return anchorDemand > rc.getNumAnchors(Anchor.STANDARD);
+  }
+
+  // needsCarriers returns true if the team has fewer carriers alive than it wants for the number of launchers alive.
+  private static boolean needsCarriers(RobotController rc) throws GameActionException {
+    int numCarriers = Census.countOf(RobotType.CARRIER, rc);
+    int numLaunchers = Census.countOf(RobotType.LAUNCHER, rc);
+    return numCarriers < MIN_CARRIERS + CARRIERS_PER_LAUNCHER * numLaunchers;
+  }
 }
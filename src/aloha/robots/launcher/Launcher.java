@@ -6,6 +6,7 @@ import java.util.*;
 import aloha.pathing.*;
 import aloha.utils.*;
 import aloha.communication.*;
+import aloha.communication.basic.Decoding;
 import static aloha.RobotPlayer.MY_TEAM;
 import static aloha.RobotPlayer.OPPONENT;
 
@@ -13,11 +14,39 @@ public class Launcher {
   private static LauncherState state = LauncherState.PROTECT_WELL;
   private static final Communicator communicator = Communicator.newCommunicator();
   private static final PathFinder fuzzyPathFinder = new FuzzyPathFinder();
+  // bugPathFinder is used on the long marches to wells and enemy headquarters, where it can't get stuck behind walls
+  //  and, unlike a search, costs the same few bytecodes every turn, leaving them for fighting.
+  private static final PathFinder bugPathFinder = new BugPathFinder();
   private static final PathFinder explorePathFinder = new ExplorePathFinder();
 
   private static MapLocation dst = null;
 
+  // WELL_MESSAGE_TYPES are the message types of wells worth protecting.
+  private static final MessageType[] WELL_MESSAGE_TYPES = new MessageType[]{MessageType.MN_WELL_LOC, MessageType.AD_WELL_LOC};
+
   private static Set<MapLocation> knownWellLocations = new HashSet<>();
+  // messageBuffer is a reusable buffer for raw message encodings received from the communicator.
+  private static final int[] messageBuffer = new int[GameConstants.SHARED_ARRAY_LENGTH];
+
+  // ENEMY_REPORT_COOLDOWN is the minimum number of rounds between two reports of enemies sighted by this launcher.
+  private static final int ENEMY_REPORT_COOLDOWN = 10;
+  private static int lastEnemyReportRound = -ENEMY_REPORT_COOLDOWN;
+
+  // ENEMY_RESPONSE_RADIUS_SQUARED is how close to the protected well a reported enemy must be for us to respond to it.
+  private static final int ENEMY_RESPONSE_RADIUS_SQUARED = 100;
+  // reportedEnemyLocation is the location of the latest enemy reported near the protected well, or null if there is none.
+  private static MapLocation reportedEnemyLocation = null;
+  // reportedEnemyRound is the round the enemy at reportedEnemyLocation was seen in.
+  private static int reportedEnemyRound = 0;
+  // REPORTED_ENEMY_TTL is the number of rounds after which a reported enemy has most likely moved on, and isn't worth chasing.
+  private static final int REPORTED_ENEMY_TTL = 10;
+
+  // reportedEnemyHQLocations are the enemy HQ locations this launcher has written to the shared array.
+  private static Set<MapLocation> reportedEnemyHQLocations = new HashSet<>();
+  // enemyHQLocation is the location of the enemy HQ we're crowding.
+  private static MapLocation enemyHQLocation = null;
+  // isEnemyHQPredicted is true if enemyHQLocation was predicted from the map's symmetry, rather than reported.
+  private static boolean isEnemyHQPredicted = false;
 
   public static void run(RobotController rc) throws GameActionException {
     switch(state) {
@@ -51,6 +80,7 @@ public class Launcher {
     RobotInfo enemyToAttack = null;
     for (RobotInfo enemy : enemyRobots) {
       if (enemy.type == RobotType.HEADQUARTERS) {
+        reportEnemyHQ(enemy, rc);
         continue; // No point in attacking HEADQUARTERS
       }
 
@@ -58,6 +88,11 @@ public class Launcher {
         enemyToAttack = enemy;
       }
     }
+    enemyToAttack = focus(enemyRobots, enemyToAttack, rc);
+
+    if (enemyToAttack != null) {
+      reportEnemy(enemyToAttack, rc);
+    }
 
     // No leader to follow, so attack if we can, and then move to a different state
     if (robotToFollow == null) {
@@ -109,14 +144,22 @@ public class Launcher {
     RobotInfo[] enemies = rc.senseNearbyRobots(RobotType.LAUNCHER.visionRadiusSquared, OPPONENT);
     RobotInfo enemyToAttack = null;
     for (RobotInfo enemy : enemies) {
-      if (enemy.type != RobotType.HEADQUARTERS && (enemyToAttack == null ||  myLocation.distanceSquaredTo(enemy.location) <  myLocation.distanceSquaredTo(enemyToAttack.location))) {
+      if (enemy.type == RobotType.HEADQUARTERS) {
+        reportEnemyHQ(enemy, rc);
+        continue; // No point in attacking HEADQUARTERS
+      }
+
+      if (enemyToAttack == null ||  myLocation.distanceSquaredTo(enemy.location) <  myLocation.distanceSquaredTo(enemyToAttack.location)) {
         enemyToAttack = enemy;
       }
     }
+    enemyToAttack = focus(enemies, enemyToAttack, rc);
     if (enemyToAttack != null) {
       if (rc.canAttack(enemyToAttack.location)) {
         rc.attack(enemyToAttack.location);
       }
+
+      reportEnemy(enemyToAttack, rc);
     }
 
     // If we don't already have a well location set, try to find a well location
@@ -136,30 +179,41 @@ public class Launcher {
         }
 
         knownWellLocations.add(well.getMapLocation());
+        Sectors.mark(Sectors.sectorOf(well.getMapLocation(), rc), Sectors.WELL, rc);
       }
 
       // No wells in sight. Get messages for wells and find the closest one.
       if (dst == null) {
-        for (Message mnWellMessage : communicator.receiveMessages(MessageType.MN_WELL_LOC, rc) ) {
-          knownWellLocations.add(mnWellMessage.loc);
-        }
-        for (Message adWellMessage : communicator.receiveMessages(MessageType.AD_WELL_LOC, rc) ) {
-        knownWellLocations.add(adWellMessage.loc);
-        }
-        for (MapLocation wellLocation : knownWellLocations) {
-          if (dst == null || myLocation.distanceSquaredTo(wellLocation) < myLocation.distanceSquaredTo(wellLocation)) {
-            dst = wellLocation;
+        int closestLocEncoding = -1;
+        int closestDistance = 0;
+        for (MessageType wellMessageType : WELL_MESSAGE_TYPES) {
+          int numMessages = communicator.receiveInto(wellMessageType, messageBuffer, rc);
+          for (int i = 0; i < numMessages; i++) {
+            int locEncoding = Decoding.locationMessageMapLocation(messageBuffer[i]);
+            int distance = Utils.distanceSquared(myLocation, Decoding.mapLocationX(locEncoding), Decoding.mapLocationY(locEncoding));
+            if (closestLocEncoding == -1 || distance < closestDistance) {
+              closestLocEncoding = locEncoding;
+              closestDistance = distance;
+            }
           }
         }
+
+        // Only the chosen well is cached, the rest stay in the shared array until we need them.
+        if (closestLocEncoding != -1) {
+          dst = Decoding.mapLocation(closestLocEncoding);
+          knownWellLocations.add(dst);
+        }
       }
 
-      // Could not find any well locations. Explore, or follow the enemy we attacked.
+      // Could not find any well locations. Follow the enemy we attacked, crowd an enemy HQ, or explore.
       if (dst == null) {
         if (enemyToAttack != null) {
           Optional<Direction> dir = fuzzyPathFinder.findPath(myLocation, enemyToAttack.location, rc);
           if (dir.isPresent() && rc.canMove(dir.get())) {
             rc.move(dir.get());
           }
+        } else if (isEnemyHQKnown(rc)) {
+          state = LauncherState.CROWD_HQ;
         } else {
           Optional<Direction> dir = explorePathFinder.findPath(myLocation, null, rc);
           if (dir.isPresent() && rc.canMove(dir.get())) {
@@ -170,9 +224,12 @@ public class Launcher {
       }
     }
 
+    // Keep track of enemies reported near our dst
+    receiveReportedEnemies(rc);
+
     // If we're too far from our dst, path to it.
     if (myLocation.distanceSquaredTo(dst) > 5) {
-      Optional<Direction> dir = fuzzyPathFinder.findPath(myLocation, dst, rc);
+      Optional<Direction> dir = bugPathFinder.findPath(myLocation, dst, rc);
       if (dir.isPresent() && rc.canMove(dir.get())) {
         rc.move(dir.get());
       }
@@ -221,7 +278,21 @@ public class Launcher {
       return;
     }
 
-    // No enemies in sight. Path to the carrier closest to the dst.
+    // No enemies in sight. If an enemy was recently reported near the dst, path to it until we can see it's gone.
+    if (reportedEnemyLocation != null && (myLocation.distanceSquaredTo(reportedEnemyLocation) <= RobotType.LAUNCHER.visionRadiusSquared
+        || rc.getRoundNum() - reportedEnemyRound > REPORTED_ENEMY_TTL)) {
+      reportedEnemyLocation = null;
+    }
+    if (reportedEnemyLocation != null) {
+      Optional<Direction> dir = fuzzyPathFinder.findPath(myLocation, reportedEnemyLocation, rc);
+      if (dir.isPresent() && rc.canMove(dir.get())) {
+        rc.move(dir.get());
+      }
+
+      return;
+    }
+
+    // Find the carrier closest to the dst.
     RobotInfo targetCarrier = null;
     for (RobotInfo friendlyRobot : friendlyRobots) {
       if (friendlyRobot.type != RobotType.CARRIER) {
@@ -232,6 +303,22 @@ public class Launcher {
         targetCarrier = friendlyRobot;
       }
     }
+
+    // Head to the nearest sector with recent enemy activity, if there are no carriers to protect, or
+    //  enough launchers to leave them to.
+    if (targetCarrier == null || enoughResources(rc)) {
+      int hotSector = Heatmap.nearestHot(myLocation, rc);
+      if (hotSector != -1) {
+        Optional<Direction> dir = fuzzyPathFinder.findPath(myLocation, Sectors.centerOf(hotSector, rc), rc);
+        if (dir.isPresent() && rc.canMove(dir.get())) {
+          rc.move(dir.get());
+        }
+
+        return;
+      }
+    }
+
+    // Path to the carrier closest to the dst.
     if (targetCarrier != null) {
       Optional<Direction> dir = fuzzyPathFinder.findPath(myLocation, targetCarrier.location, rc);
       if (dir.isPresent() && rc.canMove(dir.get())) {
@@ -241,6 +328,12 @@ public class Launcher {
       return;
     }
 
+    // Nothing to protect around here. If we have enough resources and know where an enemy base is,
+    //  go straight for it instead of wandering.
+    if (enoughResources(rc) && isEnemyHQKnown(rc)) {
+      state = LauncherState.CROWD_HQ;
+      return;
+    }
 
     // Search for something to attack
     Optional<Direction> dir = explorePathFinder.findPath(myLocation, null, rc);
@@ -254,14 +347,182 @@ public class Launcher {
   }
 
   private static void runCrowdHQ(RobotController rc) throws GameActionException {
-    // TODO
+    rc.setIndicatorString("crowding hq");
+    MapLocation myLocation = rc.getLocation();
+
+    // Attack the enemy closest to us
+    RobotInfo[] enemies = rc.senseNearbyRobots(RobotType.LAUNCHER.visionRadiusSquared, OPPONENT);
+    RobotInfo enemyToAttack = null;
+    for (RobotInfo enemy : enemies) {
+      if (enemy.type == RobotType.HEADQUARTERS) {
+        reportEnemyHQ(enemy, rc);
+        continue; // No point in attacking HEADQUARTERS
+      }
+
+      if (enemyToAttack == null || myLocation.distanceSquaredTo(enemy.location) < myLocation.distanceSquaredTo(enemyToAttack.location)) {
+        enemyToAttack = enemy;
+      }
+    }
+    enemyToAttack = focus(enemies, enemyToAttack, rc);
+    if (enemyToAttack != null) {
+      if (rc.canAttack(enemyToAttack.location)) {
+        rc.attack(enemyToAttack.location);
+        enemyToAttack = null;
+      }
+    }
+
+    // A predicted enemy HQ that isn't there was predicted from the wrong symmetry. Eliminate it, so we don't predict
+    //  the same location again, and pick another one
+    if (isEnemyHQPredicted && rc.canSenseLocation(enemyHQLocation)) {
+      RobotInfo robot = rc.senseRobotAtLocation(enemyHQLocation);
+      if (robot == null || robot.type != RobotType.HEADQUARTERS || robot.team != OPPONENT) {
+        int symmetry = Symmetry.known(rc);
+        if (symmetry != -1) {
+          Symmetry.eliminate(symmetry, rc);
+        }
+        enemyHQLocation = null;
+      }
+    }
+
+    // If we don't already have an enemy HQ to crowd, pick the closest one reported, or the closest one predicted
+    //  from the map's symmetry if none is reported
+    if (enemyHQLocation == null || isEnemyHQPredicted) {
+      enemyHQLocation = null;
+      isEnemyHQPredicted = false;
+      int numMessages = communicator.receiveInto(MessageType.ENEMY_HQ_LOC, messageBuffer, rc);
+      int closestDistance = 0;
+      for (int i = 0; i < numMessages; i++) {
+        int locEncoding = Decoding.locationMessageMapLocation(messageBuffer[i]);
+        int distance = Utils.distanceSquared(myLocation, Decoding.mapLocationX(locEncoding), Decoding.mapLocationY(locEncoding));
+        if (enemyHQLocation == null || distance < closestDistance) {
+          enemyHQLocation = Decoding.mapLocation(locEncoding);
+          closestDistance = distance;
+        }
+      }
+
+      if (enemyHQLocation == null) {
+        enemyHQLocation = Symmetry.predictEnemyHQ(myLocation, rc);
+        isEnemyHQPredicted = enemyHQLocation != null;
+      }
+
+      // No enemy HQ reported or predicted, go back to protecting wells
+      if (enemyHQLocation == null) {
+        state = LauncherState.PROTECT_WELL;
+        return;
+      }
+    }
+
+    // Path to the enemy HQ, until we're close enough to block the locations it spawns robots at
+    if (myLocation.distanceSquaredTo(enemyHQLocation) > RobotType.HEADQUARTERS.actionRadiusSquared) {
+      Optional<Direction> dir = bugPathFinder.findPath(myLocation, enemyHQLocation, rc);
+      if (dir.isPresent() && rc.canMove(dir.get())) {
+        rc.move(dir.get());
+      }
+    }
+
+    // If we couldn't attack before moving, try again
+    if (enemyToAttack != null && rc.canAttack(enemyToAttack.location)) {
+      rc.attack(enemyToAttack.location);
+    }
+  }
+
+  // reportEnemyHQ writes the location of the given enemy HQ to the shared array, if we haven't already.
+  private static void reportEnemyHQ(RobotInfo enemyHQ, RobotController rc) throws GameActionException {
+    if (reportedEnemyHQLocations.contains(enemyHQ.location)) {
+      return;
+    }
+
+    Message message = Message.builder(MessageType.ENEMY_HQ_LOC)
+      .loc(enemyHQ.location)
+      .build();
+    if (communicator.sendMessage(message, rc)) {
+      reportedEnemyHQLocations.add(enemyHQ.location);
+    }
+  }
+
+  private static boolean isEnemyHQKnown(RobotController rc) throws GameActionException {
+    return enemyHQLocation != null || communicator.receiveInto(MessageType.ENEMY_HQ_LOC, messageBuffer, rc) > 0
+      || Symmetry.known(rc) != -1;
+  }
+
+  // focus returns the enemy to attack out of the given enemies in sight, the closest of which is closestEnemy. If a
+  //  launcher before us published a focus target this round that we can attack, we attack it too (see FocusTargets).
+  //  Otherwise we pick the enemy in range with the least health, since it takes the fewest shots to kill, and publish it
+  //  for the launchers after us. If no enemy is in range, the closest enemy is returned so we can move towards it.
+  private static RobotInfo focus(RobotInfo[] enemies, RobotInfo closestEnemy, RobotController rc) throws GameActionException {
+    if (closestEnemy == null) {
+      return null;
+    }
+
+    MapLocation myLocation = rc.getLocation();
+    MapLocation target = FocusTargets.targetNear(myLocation, RobotType.LAUNCHER.actionRadiusSquared, rc);
+    if (target != null && rc.canSenseRobotAtLocation(target)) {
+      RobotInfo robot = rc.senseRobotAtLocation(target);
+      if (robot != null && robot.team == OPPONENT) {
+        return robot;
+      }
+    }
+
+    RobotInfo weakestEnemy = null;
+    for (RobotInfo enemy : enemies) {
+      if (enemy.type == RobotType.HEADQUARTERS || myLocation.distanceSquaredTo(enemy.location) > RobotType.LAUNCHER.actionRadiusSquared) {
+        continue;
+      }
+
+      if (weakestEnemy == null || enemy.health < weakestEnemy.health) {
+        weakestEnemy = enemy;
+      }
+    }
+    if (weakestEnemy == null) {
+      return closestEnemy;
+    }
+
+    FocusTargets.publish(weakestEnemy.location, rc);
+    return weakestEnemy;
+  }
+
+  // reportEnemy marks the sector of the given enemy and adds heat to it, and tells all robots about it with a single broadcast, at most
+  //  once every ENEMY_REPORT_COOLDOWN rounds.
+  private static void reportEnemy(RobotInfo enemy, RobotController rc) throws GameActionException {
+    Sectors.mark(Sectors.sectorOf(enemy.location, rc), Sectors.ENEMY, rc);
+    Heatmap.add(enemy.location, rc);
+
+    if (rc.getRoundNum() - lastEnemyReportRound < ENEMY_REPORT_COOLDOWN) {
+      return;
+    }
+
+    Message message = Message.builder(MessageType.ENEMY_LOC)
+      .recipient(Entity.ALL_ROBOTS)
+      .loc(enemy.location)
+      .build();
+    if (communicator.sendMessage(message, rc)) {
+      lastEnemyReportRound = rc.getRoundNum();
+    }
+  }
+
+  // receiveReportedEnemies sets reportedEnemyLocation to the most recently seen enemy reported close enough to the dst.
+  private static void receiveReportedEnemies(RobotController rc) throws GameActionException {
+    int numMessages = communicator.receiveInto(MessageType.ENEMY_LOC, messageBuffer, rc);
+    for (int i = 0; i < numMessages; i++) {
+      int roundNum = Decoding.roundStamp(messageBuffer[i]);
+      if (reportedEnemyLocation != null && roundNum < reportedEnemyRound) {
+        continue;
+      }
+
+      int locEncoding = Decoding.locationMessageMapLocation(messageBuffer[i]);
+      if (Utils.distanceSquared(dst, Decoding.mapLocationX(locEncoding), Decoding.mapLocationY(locEncoding)) <= ENEMY_RESPONSE_RADIUS_SQUARED) {
+        reportedEnemyLocation = Decoding.mapLocation(locEncoding);
+        reportedEnemyRound = roundNum;
+      }
+    }
   }
 
+  // enoughResources returns true if there are more launchers alive than are needed to protect the carriers alive.
   private static boolean enoughResources(RobotController rc) throws GameActionException {
-    // TODO tune the magic number. Smaller means we herd more loosely, larger means
+    // TODO tune the number of carriers per launcher. Smaller means we herd more loosely, larger means
     //  we herd more strongly
-    int magicNumber = 80;
-    return rc.getRobotCount() * magicNumber > rc.getMapHeight() * rc.getMapWidth();
+    int carriersPerLauncher = 3;
+    return Census.countOf(RobotType.LAUNCHER, rc) * carriersPerLauncher > Census.countOf(RobotType.CARRIER, rc);
   }
 
   private static boolean herdIsTooBig(RobotController rc) throws GameActionException {
@@ -0,0 +1,192 @@
+package aloha.utils;
+
+import battlecode.common.*;
+import java.util.Arrays;
+import static aloha.RobotPlayer.END_OF_TURN_BYTECODES;
+
+// MapMemory remembers the tiles this robot has seen, so pathfinders and explorers can look a tile up instead of sensing
+//  it again every turn. Every tile of a map up to MAX_MAP_SIZE x MAX_MAP_SIZE is packed into a char, indexed by
+//  x * MAX_MAP_SIZE + y:
+//
+//   bits  0-1   state, one of UNKNOWN, PASSABLE or WALL
+//   bits  2-5   ordinal of the direction of the current on the tile, CENTER if there's none
+//   bit   6     set if the tile has a cloud
+//   bits  7-8   resource id of the well on the tile, 0 if there's none
+//   bits  9-14  id of the sky-island the tile is part of, 0 if there's none
+//   bit   15    set once the tile was recorded from its MapInfo
+//
+// Passability, currents, clouds and sky-islands never change, so a tile is only recorded from its MapInfo once. A
+//  tile whose passability was sensed on its own (see isWall) only has its state until then. Wells are recorded every
+//  turn, moving or not, since they can be upgraded. Robots aren't remembered, since they move.
+public class MapMemory {
+    public static final int MAX_MAP_SIZE = 60;
+
+    // The states of a tile.
+    public static final int UNKNOWN = 0;
+    public static final int PASSABLE = 1;
+    public static final int WALL = 2;
+
+    private static final int STATE_MASK = 0x3;
+    private static final int CURRENT_SHIFT = 2;
+    private static final int CURRENT_MASK = 0xF;
+    private static final int CLOUD_BIT = 1 << 6;
+    private static final int WELL_SHIFT = 7;
+    private static final int WELL_MASK = 0x3;
+    private static final int ISLAND_SHIFT = 9;
+    private static final int ISLAND_MASK = 0x3F;
+    private static final int RECORDED_BIT = 1 << 15;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final ResourceType[] RESOURCE_TYPES = {ResourceType.NO_RESOURCE, ResourceType.ADAMANTIUM, ResourceType.MANA, ResourceType.ELIXIR};
+
+    private static final char[] tiles = new char[MAX_MAP_SIZE * MAX_MAP_SIZE];
+
+    // pending are the tiles sensed from lastSensedFrom, of which the ones from pendingIndex on are yet to be recorded.
+    //  They are recorded over as many turns as it takes.
+    private static MapInfo[] pending = new MapInfo[0];
+    private static int pendingIndex = 0;
+    private static MapLocation lastSensedFrom = null;
+    private static boolean isIslandsPending = false;
+
+    // state returns the state of the tile at loc, UNKNOWN if we haven't seen it or it's off the map.
+    public static int state(MapLocation loc) {
+        if (!isInBounds(loc)) {
+            return UNKNOWN;
+        }
+
+        return tiles[loc.x * MAX_MAP_SIZE + loc.y] & STATE_MASK;
+    }
+
+    // isWall returns true if the tile at loc is a wall. If we haven't seen the tile yet, it's sensed and recorded, and if
+    //  it can't be sensed it's assumed not to be a wall.
+    public static boolean isWall(MapLocation loc, RobotController rc) throws GameActionException {
+        int state = state(loc);
+        if (state != UNKNOWN) {
+            return state == WALL;
+        }
+
+        if (!rc.canSenseLocation(loc)) {
+            return false;
+        }
+
+        // Only the state is recorded here, update fills in the rest of the tile from its MapInfo
+        boolean isPassable = rc.sensePassability(loc);
+        tiles[loc.x * MAX_MAP_SIZE + loc.y] |= isPassable ? PASSABLE : WALL;
+        return !isPassable;
+    }
+
+    // currentOf returns the direction of the current on the tile at loc, or CENTER if there's none or we haven't
+    //  recorded the tile yet.
+    public static Direction currentOf(MapLocation loc) {
+        if (!isInBounds(loc)) {
+            return Direction.CENTER;
+        }
+
+        int tile = tiles[loc.x * MAX_MAP_SIZE + loc.y];
+        if ((tile & RECORDED_BIT) == 0) {
+            return Direction.CENTER;
+        }
+
+        return DIRECTIONS[(tile >> CURRENT_SHIFT) & CURRENT_MASK];
+    }
+
+    public static boolean hasCloud(MapLocation loc) {
+        return isInBounds(loc) && (tiles[loc.x * MAX_MAP_SIZE + loc.y] & CLOUD_BIT) != 0;
+    }
+
+    // wellTypeOf returns the resource type of the well at loc, or NO_RESOURCE if there's none or we haven't seen it.
+    public static ResourceType wellTypeOf(MapLocation loc) {
+        if (!isInBounds(loc)) {
+            return ResourceType.NO_RESOURCE;
+        }
+
+        return RESOURCE_TYPES[(tiles[loc.x * MAX_MAP_SIZE + loc.y] >> WELL_SHIFT) & WELL_MASK];
+    }
+
+    // islandOf returns the id of the sky-island the tile at loc is part of, or -1 if there's none or we haven't seen
+    //  it, like RobotController.senseIsland.
+    public static int islandOf(MapLocation loc) {
+        if (!isInBounds(loc)) {
+            return -1;
+        }
+
+        int id = (tiles[loc.x * MAX_MAP_SIZE + loc.y] >> ISLAND_SHIFT) & ISLAND_MASK;
+        return id == 0 ? -1 : id;
+    }
+
+    // update records the tiles around this robot, as long as it has more than END_OF_TURN_BYTECODES left, and picks up
+    //  where it left off next turn. It should be called at the end of the robot's turn.
+    public static void update(RobotController rc) throws GameActionException {
+        if (Clock.getBytecodesLeft() <= END_OF_TURN_BYTECODES) {
+            return;
+        }
+
+        // Wells can be upgraded, so they're recorded even by robots that haven't moved
+        recordWells(rc);
+
+        if (pendingIndex >= pending.length && !isIslandsPending) {
+            // Robots that haven't moved, like headquarters, have no new tiles to record
+            MapLocation myLocation = rc.getLocation();
+            if (myLocation.equals(lastSensedFrom) || Clock.getBytecodesLeft() <= END_OF_TURN_BYTECODES) {
+                return;
+            }
+
+            pending = rc.senseNearbyMapInfos();
+            pendingIndex = 0;
+            lastSensedFrom = myLocation;
+            isIslandsPending = true;
+        }
+
+        while (pendingIndex < pending.length && Clock.getBytecodesLeft() > END_OF_TURN_BYTECODES) {
+            MapInfo info = pending[pendingIndex++];
+            MapLocation loc = info.getMapLocation();
+            int index = loc.x * MAX_MAP_SIZE + loc.y;
+            int tile = tiles[index];
+            if ((tile & RECORDED_BIT) != 0) {
+                continue;
+            }
+
+            tile |= RECORDED_BIT | (info.isPassable() ? PASSABLE : WALL);
+            tile |= info.getCurrentDirection().ordinal() << CURRENT_SHIFT;
+            if (info.hasCloud()) {
+                tile |= CLOUD_BIT;
+            }
+            tiles[index] = (char) tile;
+        }
+
+        if (pendingIndex >= pending.length && isIslandsPending && Clock.getBytecodesLeft() > END_OF_TURN_BYTECODES) {
+            recordIslands(rc);
+            isIslandsPending = false;
+        }
+    }
+
+    private static void recordWells(RobotController rc) {
+        for (WellInfo well : rc.senseNearbyWells()) {
+            MapLocation loc = well.getMapLocation();
+            int index = loc.x * MAX_MAP_SIZE + loc.y;
+            tiles[index] = (char) ((tiles[index] & ~(WELL_MASK << WELL_SHIFT)) | (well.getResourceType().resourceID << WELL_SHIFT));
+        }
+    }
+
+    private static void recordIslands(RobotController rc) throws GameActionException {
+        for (int id : rc.senseNearbyIslands()) {
+            for (MapLocation loc : rc.senseNearbyIslandLocations(id)) {
+                tiles[loc.x * MAX_MAP_SIZE + loc.y] |= id << ISLAND_SHIFT;
+            }
+        }
+    }
+
+    // reset forgets every tile. In a match every robot gets its own copy of the static state, so this is only needed by
+    //  tests that drive robots on different maps from the same JVM.
+    public static void reset() {
+        Arrays.fill(tiles, (char) 0);
+        pending = new MapInfo[0];
+        pendingIndex = 0;
+        lastSensedFrom = null;
+        isIslandsPending = false;
+    }
+
+    private static boolean isInBounds(MapLocation loc) {
+        return loc.x >= 0 && loc.y >= 0 && loc.x < MAX_MAP_SIZE && loc.y < MAX_MAP_SIZE;
+    }
+}
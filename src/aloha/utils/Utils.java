@@ -35,4 +35,12 @@ public class Utils {
     public static Direction getRandomDirection() {
       return getRandomValueFrom(directions);
     }
+
+    // distanceSquared is MapLocation.distanceSquaredTo for a location given by its coordinates, so callers
+    //  working with encoded locations don't need to allocate a MapLocation.
+    public static int distanceSquared(MapLocation loc, int x, int y) {
+      int dx = loc.x - x;
+      int dy = loc.y - y;
+      return dx * dx + dy * dy;
+    }
 }
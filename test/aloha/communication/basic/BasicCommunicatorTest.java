@@ -0,0 +1,183 @@
+package aloha.communication.basic;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import battlecode.common.*;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import aloha.communication.*;
+import aloha.robots.headquarters.HeadquartersState;
+import aloha.utils.Log;
+
+public class BasicCommunicatorTest {
+  private int[] sharedArray;
+  private Communicator communicator;
+  private int[] buffer;
+
+  @Before
+  public void setUp() {
+    sharedArray = new int[GameConstants.SHARED_ARRAY_LENGTH];
+    communicator = new BasicCommunicator();
+    buffer = new int[GameConstants.SHARED_ARRAY_LENGTH];
+    BasicCommunicator.reset();
+  }
+
+  @Test
+  public void testMessageFromOneRobotIsReceivedByAnother() throws GameActionException {
+    RobotController sender = fakeRobot(RobotType.CARRIER, new MapLocation(5, 5), 1);
+    assertTrue(send(MessageType.MN_WELL_LOC, new MapLocation(10, 12), sender));
+
+    RobotController receiver = fakeRobot(RobotType.CARRIER, new MapLocation(30, 30), 2);
+    List<Message> messages = communicator.receiveMessages(MessageType.MN_WELL_LOC, receiver);
+    assertEquals(1, messages.size());
+    assertEquals(MessageType.MN_WELL_LOC, messages.get(0).messageType);
+    assertEquals(new MapLocation(10, 12), messages.get(0).loc);
+
+    assertEquals(1, communicator.receiveInto(MessageType.MN_WELL_LOC, buffer, receiver));
+    assertEquals(Encoding.of(new MapLocation(10, 12)), Decoding.locationMessageMapLocation(buffer[0]));
+  }
+
+  @Test
+  public void testMessagesAreFilteredByType() throws GameActionException {
+    RobotController sender = fakeRobot(RobotType.CARRIER, new MapLocation(5, 5), 1);
+    assertTrue(send(MessageType.MN_WELL_LOC, new MapLocation(1, 2), sender));
+    assertTrue(send(MessageType.AD_WELL_LOC, new MapLocation(3, 4), sender));
+    assertTrue(send(MessageType.MN_WELL_LOC, new MapLocation(5, 6), sender));
+
+    RobotController receiver = fakeRobot(RobotType.CARRIER, new MapLocation(30, 30), 2);
+    List<Message> mnMessages = communicator.receiveMessages(MessageType.MN_WELL_LOC, receiver);
+    assertEquals(2, mnMessages.size());
+    assertEquals(new MapLocation(1, 2), mnMessages.get(0).loc);
+    assertEquals(new MapLocation(5, 6), mnMessages.get(1).loc);
+
+    List<Message> adMessages = communicator.receiveMessages(MessageType.AD_WELL_LOC, receiver);
+    assertEquals(1, adMessages.size());
+    assertEquals(new MapLocation(3, 4), adMessages.get(0).loc);
+
+    assertEquals(0, communicator.receiveMessages(MessageType.EX_WELL_LOC, receiver).size());
+  }
+
+  @Test
+  public void testMessagesAreOnlyReceivedOnce() throws GameActionException {
+    RobotController sender = fakeRobot(RobotType.CARRIER, new MapLocation(5, 5), 1);
+    assertTrue(send(MessageType.AD_WELL_LOC, new MapLocation(3, 4), sender));
+
+    assertEquals(1, communicator.receiveInto(MessageType.AD_WELL_LOC, buffer, fakeRobot(RobotType.CARRIER, new MapLocation(30, 30), 2)));
+    assertEquals(0, communicator.receiveInto(MessageType.AD_WELL_LOC, buffer, fakeRobot(RobotType.CARRIER, new MapLocation(30, 30), 3)));
+  }
+
+  @Test
+  public void testMessagesAreOnlyReceivedByRecipient() throws GameActionException {
+    RobotController sender = fakeRobot(RobotType.CARRIER, new MapLocation(5, 5), 1);
+    assertTrue(communicator.sendMessage(Message.builder(MessageType.AD_WELL_LOC).recipient(Entity.LAUNCHERS).loc(new MapLocation(3, 4)).build(), sender));
+
+    assertEquals(0, communicator.receiveInto(MessageType.AD_WELL_LOC, buffer, fakeRobot(RobotType.CARRIER, new MapLocation(30, 30), 2)));
+    BasicCommunicator.reset();
+    assertEquals(1, communicator.receiveInto(MessageType.AD_WELL_LOC, buffer, fakeRobot(RobotType.LAUNCHER, new MapLocation(30, 30), 2)));
+  }
+
+  @Test
+  public void testBroadcastMessagesAreReceivedByAllRobots() throws GameActionException {
+    RobotController sender = fakeRobot(RobotType.HEADQUARTERS, new MapLocation(5, 5), 1);
+    assertTrue(communicator.sendMessage(Message.builder(MessageType.ENEMY_LOC).recipient(Entity.ALL_ROBOTS).loc(new MapLocation(7, 8)).build(), sender));
+    RobotController carrier = fakeRobot(RobotType.CARRIER, new MapLocation(5, 5), 1);
+    assertTrue(send(MessageType.ENEMY_LOC, new MapLocation(9, 9), carrier));
+
+    // Carriers receive both the broadcast message and the message in their own range
+    assertEquals(2, communicator.receiveInto(MessageType.ENEMY_LOC, buffer, fakeRobot(RobotType.CARRIER, new MapLocation(30, 30), 2)));
+
+    for (RobotType type : new RobotType[]{RobotType.LAUNCHER, RobotType.AMPLIFIER, RobotType.HEADQUARTERS}) {
+      BasicCommunicator.reset();
+      assertEquals(1, communicator.receiveInto(MessageType.ENEMY_LOC, buffer, fakeRobot(type, new MapLocation(30, 30), 2)));
+      assertEquals(Encoding.of(new MapLocation(7, 8)), Decoding.locationMessageMapLocation(buffer[0]));
+    }
+  }
+
+  @Test
+  public void testEnemyHQsAreReportedOncePerLocation() throws GameActionException {
+    RobotController sender = fakeRobot(RobotType.LAUNCHER, new MapLocation(5, 5), 1);
+    assertTrue(communicator.sendMessage(Message.builder(MessageType.ENEMY_HQ_LOC).loc(new MapLocation(0, 0)).build(), sender));
+    assertTrue(communicator.sendMessage(Message.builder(MessageType.ENEMY_HQ_LOC).loc(new MapLocation(40, 2)).build(), sender));
+
+    RobotController carrier = fakeRobot(RobotType.CARRIER, new MapLocation(30, 30), 2);
+    assertTrue(communicator.sendMessage(Message.builder(MessageType.ENEMY_HQ_LOC).loc(new MapLocation(40, 2)).build(), carrier));
+
+    // The table is persistent, so every robot receives every enemy HQ on every turn
+    for (int round = 3; round < 5; round++) {
+      List<Message> messages = communicator.receiveMessages(MessageType.ENEMY_HQ_LOC, fakeRobot(RobotType.LAUNCHER, new MapLocation(30, 30), round));
+      assertEquals(2, messages.size());
+      assertEquals(new MapLocation(0, 0), messages.get(0).loc);
+      assertEquals(new MapLocation(40, 2), messages.get(1).loc);
+    }
+  }
+
+  @Test
+  public void testTimestampedMessagesExpire() throws GameActionException {
+    RobotController sender = fakeRobot(RobotType.CARRIER, new MapLocation(5, 5), 100);
+    assertTrue(communicator.sendMessage(Message.builder(MessageType.ENEMY_LOC).recipient(Entity.LAUNCHERS).loc(new MapLocation(7, 8)).roundNum(60).build(), sender));
+    assertTrue(communicator.sendMessage(Message.builder(MessageType.ENEMY_LOC).recipient(Entity.LAUNCHERS).loc(new MapLocation(9, 9)).build(), sender));
+    assertTrue(communicator.sendMessage(Message.builder(MessageType.AD_WELL_LOC).recipient(Entity.LAUNCHERS).loc(new MapLocation(1, 1)).build(), sender));
+
+    // The sighting from round 60 is too old, and the round stamps are not received as messages
+    RobotController receiver = fakeRobot(RobotType.LAUNCHER, new MapLocation(30, 30), 101);
+    List<Message> messages = communicator.receiveMessages(MessageType.ENEMY_LOC, receiver);
+    assertEquals(1, messages.size());
+    assertEquals(new MapLocation(9, 9), messages.get(0).loc);
+    assertEquals(100, messages.get(0).roundNum);
+    assertEquals(1, communicator.receiveMessages(MessageType.AD_WELL_LOC, receiver).size());
+  }
+
+  @Test
+  public void testCompactRemovesCopiesAndStaleMessages() throws GameActionException {
+    RobotController carrier = fakeRobot(RobotType.CARRIER, new MapLocation(5, 5), 100);
+    assertTrue(send(MessageType.AD_WELL_LOC, new MapLocation(3, 4), carrier));
+    assertTrue(communicator.sendMessage(Message.builder(MessageType.ENEMY_LOC).recipient(Entity.CARRIERS).loc(new MapLocation(7, 8)).roundNum(60).build(), carrier));
+    assertTrue(send(MessageType.AD_WELL_LOC, new MapLocation(3, 4), carrier));
+    assertTrue(send(MessageType.MN_WELL_LOC, new MapLocation(3, 4), carrier));
+
+    RobotController hq = fakeRobot(RobotType.HEADQUARTERS, new MapLocation(30, 30), 101);
+    assertTrue(communicator.sendMessage(Message.builder(MessageType.HQ_STATE).hqState(HeadquartersState.BUILD_CARRIER).loc(new MapLocation(30, 30)).build(), hq));
+    communicator.compact(hq);
+
+    // Only the first copy of the adamantium well and the mana well are left in the range
+    int numMessages = 0;
+    for (int i = 1; i < SharedArrayLayout.CARRIERS_LENGTH; i++) {
+      if (sharedArray[SharedArrayLayout.CARRIERS_FIRST_INDEX + i] != 0) {
+        numMessages++;
+      }
+    }
+    assertEquals(2, numMessages);
+
+    BasicCommunicator.reset();
+    RobotController receiver = fakeRobot(RobotType.CARRIER, new MapLocation(30, 30), 101);
+    assertEquals(1, communicator.receiveInto(MessageType.AD_WELL_LOC, buffer, receiver));
+    assertEquals(1, communicator.receiveInto(MessageType.MN_WELL_LOC, buffer, receiver));
+    assertEquals(0, communicator.receiveInto(MessageType.ENEMY_LOC, buffer, receiver));
+  }
+
+  private boolean send(MessageType messageType, MapLocation loc, RobotController rc) throws GameActionException {
+    return communicator.sendMessage(Message.builder(messageType).recipient(Entity.CARRIERS).loc(loc).build(), rc);
+  }
+
+  // fakeRobot returns a RobotController that can only talk to the shared array.
+  private RobotController fakeRobot(RobotType type, MapLocation loc, int round) {
+    RobotController rc = (RobotController) Proxy.newProxyInstance(RobotController.class.getClassLoader(), new Class<?>[]{RobotController.class}, (proxy, method, args) -> {
+      switch (method.getName()) {
+        case "getRoundNum":           return round;
+        case "getType":               return type;
+        case "getLocation":           return loc;
+        case "readSharedArray":       return sharedArray[(int) args[0]];
+        case "canWriteSharedArray":   return (int) args[1] >= 0 && (int) args[1] <= GameConstants.MAX_SHARED_ARRAY_VALUE;
+        case "writeSharedArray":      sharedArray[(int) args[0]] = (int) args[1]; return null;
+        case "hashCode":              return System.identityHashCode(proxy);
+        case "equals":                return proxy == args[0];
+        case "toString":              return type + "@" + loc;
+        default: throw new UnsupportedOperationException(method.getName());
+      }
+    });
+    Log.rc = rc;
+    return rc;
+  }
+}
@@ -0,0 +1,94 @@
+package aloha.communication.basic;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import battlecode.common.*;
+import aloha.communication.*;
+import aloha.robots.headquarters.HeadquartersState;
+
+// GeneratedCodecsTest round-trips every layout and enum of messages.schema through GeneratedEncoding and
+//  GeneratedDecoding.
+public class GeneratedCodecsTest {
+  private static final int MAX_COORDINATE = GameConstants.MAP_MAX_WIDTH - 1;
+  private static final int MAX_ROUND = GameConstants.GAME_MAX_NUMBER_OF_ROUNDS;
+
+  @Test
+  public void testEnumsRoundTrip() {
+    for (Entity entity : Entity.values()) {
+      assertEquals(entity, Decoding.entity(Encoding.of(entity)));
+      assertTrue(Encoding.of(entity) <= Encoding.ENTITY_ENCODING_MASK);
+    }
+    for (MessageType messageType : MessageType.values()) {
+      assertEquals(messageType, Decoding.messageType(Encoding.of(messageType)));
+      assertTrue(Encoding.of(messageType) <= Encoding.MESSAGE_TYPE_ENCODING_MASK);
+      assertNotEquals(Encoding.ROUND_STAMP_MESSAGE_TYPE_ENCODING, Encoding.of(messageType));
+    }
+    for (HeadquartersState hqState : HeadquartersState.values()) {
+      assertEquals(hqState, Decoding.hqState(Encoding.of(hqState)));
+      assertTrue(Encoding.of(hqState) <= Encoding.HQ_STATE_ENCODING_MASK);
+    }
+  }
+
+  @Test
+  public void testMapLocationRoundTrips() {
+    int[][] coordinates = {{0, 0}, {MAX_COORDINATE, MAX_COORDINATE}, {0, MAX_COORDINATE}, {MAX_COORDINATE, 0}, {17, 42}};
+    for (int[] coordinate : coordinates) {
+      int encoding = Encoding.ofMapLocation(coordinate[0], coordinate[1]);
+      assertTrue(encoding <= Encoding.MAPLOCATION_ENCODING_MASK);
+      assertEquals(coordinate[0], Decoding.mapLocationX(encoding));
+      assertEquals(coordinate[1], Decoding.mapLocationY(encoding));
+
+      MapLocation loc = new MapLocation(coordinate[0], coordinate[1]);
+      assertEquals(encoding, Encoding.of(loc));
+      assertEquals(loc, Decoding.mapLocation(encoding));
+    }
+  }
+
+  @Test
+  public void testHQStateMessageRoundTrips() {
+    int[] locEncodings = {0, Encoding.MAPLOCATION_ENCODING_MASK, Encoding.ofMapLocation(17, 42)};
+    for (int locEncoding : locEncodings) {
+      for (HeadquartersState hqState : HeadquartersState.values()) {
+        int encoding = Encoding.ofHQStateMessage(locEncoding, Encoding.of(hqState));
+        assertTrue(encoding <= 0xFFFF);
+        assertEquals(locEncoding, Decoding.hqStateMessageMapLocation(encoding));
+        assertEquals(Encoding.of(hqState), Decoding.hqStateMessageHQState(encoding));
+      }
+    }
+
+    Message message = Message.builder(MessageType.HQ_STATE).loc(new MapLocation(MAX_COORDINATE, 3)).hqState(HeadquartersState.BUILD_LAUNCHER).build();
+    Message decoded = Decoding.hqStateMessage(Encoding.ofHQStateMessage(message));
+    assertEquals(message.loc, decoded.loc);
+    assertEquals(message.hqState, decoded.hqState);
+  }
+
+  @Test
+  public void testLocationMessageRoundTrips() {
+    int[] locEncodings = {0, Encoding.MAPLOCATION_ENCODING_MASK, Encoding.ofMapLocation(17, 42)};
+    for (int locEncoding : locEncodings) {
+      for (MessageType messageType : MessageType.values()) {
+        int encoding = Encoding.ofLocationMessage(locEncoding, Encoding.of(messageType));
+        assertTrue(encoding <= 0xFFFF);
+        assertEquals(locEncoding, Decoding.locationMessageMapLocation(encoding));
+        assertEquals(Encoding.of(messageType), Decoding.locationMessageMessageType(encoding));
+      }
+    }
+
+    Message message = Message.builder(MessageType.ENEMY_LOC).loc(new MapLocation(8, MAX_COORDINATE)).build();
+    Message decoded = Decoding.locationMessage(Encoding.ofLocationMessage(message));
+    assertEquals(message.messageType, decoded.messageType);
+    assertEquals(message.loc, decoded.loc);
+  }
+
+  @Test
+  public void testRoundStampRoundTrips() {
+    int[] roundNums = {1, MAX_ROUND, Encoding.ROUND_STAMP_ENCODING_MASK, 777};
+    for (int roundNum : roundNums) {
+      int encoding = Encoding.ofRoundStamp(roundNum);
+      assertTrue(encoding <= 0xFFFF);
+      assertEquals(roundNum, Decoding.roundStampRoundNum(encoding));
+      assertEquals(Encoding.ROUND_STAMP_MESSAGE_TYPE_ENCODING, encoding & Encoding.MESSAGE_TYPE_ENCODING_MASK);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package aloha.pathing;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import aloha.utils.MapMemory;
+import battlecode.common.*;
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+public class BugPathFinderTest {
+  private static final int MAP_SIZE = 30;
+
+  @Test
+  public void testGetsOutOfConcaveObstacle() throws GameActionException {
+    // A cup open towards the west, right between the robot and dst
+    Set<MapLocation> walls = new HashSet<>();
+    for (int y = 10; y <= 20; y++) {
+      walls.add(new MapLocation(15, y));
+    }
+    for (int x = 10; x <= 14; x++) {
+      walls.add(new MapLocation(x, 10));
+      walls.add(new MapLocation(x, 20));
+    }
+
+    // Whichever side it follows the wall on, it must get there
+    for (int i = 0; i < 10; i++) {
+      assertReaches(new MapLocation(5, 15), new MapLocation(25, 15), walls, 60);
+    }
+  }
+
+  @Test
+  public void testGoesAroundWallFromMapEdge() throws GameActionException {
+    // A wall from the bottom edge of the map up to near the top, so only going around the top gets there
+    Set<MapLocation> walls = new HashSet<>();
+    for (int y = 0; y <= 25; y++) {
+      walls.add(new MapLocation(15, y));
+    }
+
+    for (int i = 0; i < 10; i++) {
+      assertReaches(new MapLocation(10, 5), new MapLocation(20, 5), walls, 200);
+    }
+  }
+
+  private static void assertReaches(MapLocation src, MapLocation dst, Set<MapLocation> walls, int maxTurns) throws GameActionException {
+    MapMemory.reset();
+    MapLocation[] location = {src};
+    RobotController rc = fakeRobot(location, walls);
+    PathFinder pathFinder = new BugPathFinder();
+    for (int turn = 0; turn < maxTurns && !location[0].equals(dst); turn++) {
+      Optional<Direction> direction = pathFinder.findPath(location[0], dst, rc);
+      if (direction.isPresent()) {
+        location[0] = location[0].add(direction.get());
+        assertTrue("walked off the map to " + location[0], isOnMap(location[0]));
+        assertFalse("walked into the wall at " + location[0], walls.contains(location[0]));
+      }
+    }
+
+    assertEquals(dst, location[0]);
+  }
+
+  // fakeRobot returns a RobotController on a MAP_SIZE x MAP_SIZE map with the given walls, that senses from the given
+  //  location.
+  private static RobotController fakeRobot(MapLocation[] location, Set<MapLocation> walls) {
+    return (RobotController) Proxy.newProxyInstance(RobotController.class.getClassLoader(), new Class<?>[]{RobotController.class}, (proxy, method, args) -> {
+      switch (method.getName()) {
+        case "onTheMap":            return isOnMap((MapLocation) args[0]);
+        case "canSenseLocation":    return isOnMap((MapLocation) args[0]) && location[0].distanceSquaredTo((MapLocation) args[0]) <= RobotType.LAUNCHER.visionRadiusSquared;
+        case "sensePassability":    return !walls.contains(args[0]);
+        case "isLocationOccupied":  return false;
+        default: throw new UnsupportedOperationException(method.getName());
+      }
+    });
+  }
+
+  private static boolean isOnMap(MapLocation loc) {
+    return loc.x >= 0 && loc.y >= 0 && loc.x < MAP_SIZE && loc.y < MAP_SIZE;
+  }
+}
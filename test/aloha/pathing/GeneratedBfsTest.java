@@ -0,0 +1,254 @@
+package aloha.pathing;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import aloha.utils.MapMemory;
+import battlecode.common.*;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+public class GeneratedBfsTest {
+  // API_CALL_BYTECODES is what we assume a call into the engine costs, on top of the instructions that make the call.
+  private static final int API_CALL_BYTECODES = 5;
+
+  // BUDGET_SHARE is the share of a robot's bytecode limit a search may take, so the rest of the turn can still run.
+  private static final int BUDGET_SHARE = 2;
+
+  @Before
+  public void setUp() {
+    MapMemory.reset();
+  }
+
+  @Test
+  public void testSearchFitsBytecodeBudgetOfEveryRobotType() throws IOException {
+    int[] cost = costOf("firstStep");
+    int maxBytecodes = cost[0] + cost[1] * API_CALL_BYTECODES;
+    assertTrue("search takes " + maxBytecodes + " bytecodes, more than BfsPathFinder.MIN_SEARCH_BYTECODES",
+      maxBytecodes <= BfsPathFinder.MIN_SEARCH_BYTECODES);
+
+    for (RobotType type : RobotType.values()) {
+      // Headquarters never move
+      if (type == RobotType.HEADQUARTERS) {
+        continue;
+      }
+
+      assertTrue(type + " can't sense the whole searched area", type.visionRadiusSquared >= GeneratedBfs.RADIUS_SQUARED);
+      assertTrue(type + " search takes " + maxBytecodes + " of " + type.bytecodeLimit + " bytecodes",
+        maxBytecodes <= type.bytecodeLimit / BUDGET_SHARE);
+    }
+  }
+
+  @Test
+  public void testWalksAroundWallPocket() throws GameActionException {
+    // A pocket open towards the west, right between the robot and dst
+    Set<MapLocation> walls = new HashSet<>();
+    for (int y = 7; y <= 13; y++) {
+      walls.add(new MapLocation(12, y));
+    }
+    for (int x = 9; x <= 11; x++) {
+      walls.add(new MapLocation(x, 7));
+      walls.add(new MapLocation(x, 13));
+    }
+
+    MapLocation[] location = {new MapLocation(10, 10)};
+    MapLocation dst = new MapLocation(15, 10);
+    RobotController rc = fakeRobot(location, walls);
+    PathFinder pathFinder = new BfsPathFinder();
+    for (int step = 0; step < 16 && !location[0].equals(dst); step++) {
+      Optional<Direction> direction = pathFinder.findPath(location[0], dst, rc);
+      assertTrue(direction.isPresent());
+      location[0] = location[0].add(direction.get());
+      assertFalse(walls.contains(location[0]));
+    }
+
+    assertEquals(dst, location[0]);
+  }
+
+  @Test
+  public void testHeadsTowardsFarAwayDestination() throws GameActionException {
+    MapLocation[] location = {new MapLocation(10, 10)};
+    RobotController rc = fakeRobot(location, new HashSet<>());
+    assertEquals(1, GeneratedBfs.firstStep(location[0], new MapLocation(40, 10), rc).dx);
+    assertEquals(new MapLocation(14, 10), GeneratedBfs.waypoint);
+    assertEquals(Direction.NORTHEAST, GeneratedBfs.firstStep(location[0], new MapLocation(40, 40), rc));
+    assertEquals(new MapLocation(13, 13), GeneratedBfs.waypoint);
+
+    // A destination in reach is headed to straight away
+    assertEquals(-1, GeneratedBfs.firstStep(location[0], new MapLocation(7, 10), rc).dx);
+    assertNull(GeneratedBfs.waypoint);
+  }
+
+  @Test
+  public void testWaitsNextToOccupiedDestination() throws GameActionException {
+    MapLocation[] location = {new MapLocation(10, 10)};
+    MapLocation dst = new MapLocation(11, 10);
+    Set<MapLocation> occupied = new HashSet<>();
+    occupied.add(dst);
+    RobotController rc = fakeRobot(location, new HashSet<>(), occupied);
+
+    // dst is in reach, so there's no edge tile to walk away to
+    assertNull(GeneratedBfs.firstStep(location[0], dst, rc));
+    assertNull(GeneratedBfs.waypoint);
+    assertFalse(new BfsPathFinder().findPath(location[0], dst, rc).isPresent());
+  }
+
+  private RobotController fakeRobot(MapLocation[] location, Set<MapLocation> walls) {
+    return fakeRobot(location, walls, new HashSet<>());
+  }
+
+  // fakeRobot returns a RobotController on a 30x30 map with the given walls and occupied tiles, that senses from the
+  //  given location.
+  private RobotController fakeRobot(MapLocation[] location, Set<MapLocation> walls, Set<MapLocation> occupied) {
+    return (RobotController) Proxy.newProxyInstance(RobotController.class.getClassLoader(), new Class<?>[]{RobotController.class}, (proxy, method, args) -> {
+      switch (method.getName()) {
+        case "getLocation":         return location[0];
+        case "canSenseLocation":    return isOnMap((MapLocation) args[0]) && location[0].distanceSquaredTo((MapLocation) args[0]) <= RobotType.CARRIER.visionRadiusSquared;
+        case "sensePassability":    return !walls.contains(args[0]);
+        case "isLocationOccupied":  return occupied.contains(args[0]);
+        default: throw new UnsupportedOperationException(method.getName());
+      }
+    });
+  }
+
+  private static boolean isOnMap(MapLocation loc) {
+    return loc.x >= 0 && loc.y >= 0 && loc.x < 30 && loc.y < 30;
+  }
+
+  // costOf returns the number of instructions of the given method of GeneratedBfs, and the number of method calls among
+  //  them. Since the method has no backward jumps, no instruction runs more than once, so these bound the bytecodes a
+  //  call to the method costs.
+  private static int[] costOf(String methodName) throws IOException {
+    try (InputStream stream = GeneratedBfs.class.getResourceAsStream("GeneratedBfs.class")) {
+      DataInputStream in = new DataInputStream(stream);
+      in.readInt(); // magic
+      in.readUnsignedShort(); // minor version
+      in.readUnsignedShort(); // major version
+
+      int constantPoolCount = in.readUnsignedShort();
+      String[] utf8 = new String[constantPoolCount];
+      for (int i = 1; i < constantPoolCount; i++) {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+          case 1:                                   utf8[i] = in.readUTF(); break;
+          case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18: in.skipBytes(4); break;
+          case 5: case 6:                           in.skipBytes(8); i++; break;
+          case 7: case 8: case 16: case 19: case 20: in.skipBytes(2); break;
+          case 15:                                  in.skipBytes(3); break;
+          default: throw new RuntimeException("should not be here, got: " + tag);
+        }
+      }
+
+      in.skipBytes(6); // access flags, this class, super class
+      in.skipBytes(2 * in.readUnsignedShort()); // interfaces
+
+      int fieldsCount = in.readUnsignedShort();
+      for (int i = 0; i < fieldsCount; i++) {
+        in.skipBytes(6);
+        skipAttributes(in);
+      }
+
+      int methodsCount = in.readUnsignedShort();
+      for (int i = 0; i < methodsCount; i++) {
+        in.skipBytes(2);
+        String name = utf8[in.readUnsignedShort()];
+        in.skipBytes(2);
+        int attributesCount = in.readUnsignedShort();
+        for (int j = 0; j < attributesCount; j++) {
+          String attributeName = utf8[in.readUnsignedShort()];
+          int length = in.readInt();
+          if (!name.equals(methodName) || !attributeName.equals("Code")) {
+            in.skipBytes(length);
+            continue;
+          }
+
+          in.skipBytes(4); // max stack, max locals
+          byte[] code = new byte[in.readInt()];
+          in.readFully(code);
+          return costOf(code);
+        }
+      }
+    }
+
+    throw new RuntimeException("should not be here");
+  }
+
+  private static void skipAttributes(DataInputStream in) throws IOException {
+    int attributesCount = in.readUnsignedShort();
+    for (int i = 0; i < attributesCount; i++) {
+      in.skipBytes(2);
+      in.skipBytes(in.readInt());
+    }
+  }
+
+  private static int[] costOf(byte[] code) {
+    int numInstructions = 0;
+    int numCalls = 0;
+    int pc = 0;
+    while (pc < code.length) {
+      int opcode = code[pc] & 0xff;
+      numInstructions++;
+
+      int length;
+      if (opcode == 0xaa || opcode == 0xab) {
+        // tableswitch and lookupswitch are padded to a multiple of 4, and only ever jump forward here
+        int operands = (pc + 4) & ~3;
+        if (opcode == 0xaa) {
+          int low = readInt(code, operands + 4);
+          int high = readInt(code, operands + 8);
+          length = operands + 12 + 4 * (high - low + 1) - pc;
+        } else {
+          length = operands + 8 + 8 * readInt(code, operands + 4) - pc;
+        }
+      } else if (opcode == 0xc4) {
+        length = (code[pc + 1] & 0xff) == 0x84 ? 6 : 4;
+      } else {
+        length = lengthOf(opcode);
+      }
+
+      // Conditional branches and gotos must only jump forward, or the method has a loop
+      if ((opcode >= 0x99 && opcode <= 0xa8) || opcode == 0xc6 || opcode == 0xc7) {
+        assertTrue("backward jump at " + pc, (short) (((code[pc + 1] & 0xff) << 8) | (code[pc + 2] & 0xff)) > 0);
+      }
+      assertNotEquals("wide jump at " + pc, 0xc8, opcode);
+
+      if (opcode >= 0xb6 && opcode <= 0xba) {
+        numCalls++;
+      }
+
+      pc += length;
+    }
+
+    return new int[]{numInstructions, numCalls};
+  }
+
+  private static int readInt(byte[] code, int pc) {
+    return ((code[pc] & 0xff) << 24) | ((code[pc + 1] & 0xff) << 16) | ((code[pc + 2] & 0xff) << 8) | (code[pc + 3] & 0xff);
+  }
+
+  // lengthOf returns the length in bytes of the instruction with the given opcode, including its operands.
+  private static int lengthOf(int opcode) {
+    if (opcode == 0x10 || opcode == 0x12 || (opcode >= 0x15 && opcode <= 0x19) || (opcode >= 0x36 && opcode <= 0x3a)
+      || opcode == 0xa9 || opcode == 0xbc) {
+      return 2;
+    }
+    if (opcode == 0x11 || opcode == 0x13 || opcode == 0x14 || opcode == 0x84 || (opcode >= 0x99 && opcode <= 0xa8)
+      || (opcode >= 0xb2 && opcode <= 0xb8) || opcode == 0xbb || opcode == 0xbd || opcode == 0xc0 || opcode == 0xc1
+      || opcode == 0xc6 || opcode == 0xc7) {
+      return 3;
+    }
+    if (opcode == 0xc5) {
+      return 4;
+    }
+    if (opcode == 0xb9 || opcode == 0xba || opcode == 0xc8 || opcode == 0xc9) {
+      return 5;
+    }
+    return 1;
+  }
+}